@@ -0,0 +1,282 @@
+package batch;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.json.JSONObject;
+
+import geometry_objects.Segment;
+import geometry_objects.angle.AngleEquivalenceClasses;
+import geometry_objects.points.PointDatabase;
+import input.InputFacade;
+import input.components.FigureNode;
+import preprocessor.AngleIdentifier;
+import preprocessor.Preprocessor;
+import preprocessor.TriangleIdentifier;
+
+/**
+ * Processes many figure files through the entire pipeline:
+ *    parse (InputFacade) -> Preprocessor -> AngleIdentifier -> TriangleIdentifier
+ *
+ * Figures are processed on a pool of worker threads; at most a fixed number of
+ * figures are in flight at once so that memory remains bounded regardless of the
+ * number of files. The result of each figure (counts, timings or the error) is
+ * written as a single line of JSON as soon as the figure completes.
+ *
+ * Usage: BatchFigureProcessor [-t threads] [-n in-flight] [--virtual] (directory | file)...
+ */
+public class BatchFigureProcessor
+{
+	/**
+	 * The kind of threads on which figures are processed:
+	 *    PLATFORM -- a fixed pool of platform threads
+	 *    VIRTUAL  -- a virtual thread per figure (Java 21+; platform threads otherwise)
+	 */
+	public enum Threads { PLATFORM, VIRTUAL }
+
+	protected final int _threads;
+	protected final Threads _kind;
+	protected final int _maxInFlight;
+
+	public int getThreads() { return _threads; }
+	public Threads getKind() { return _kind; }
+	public int getMaxInFlight() { return _maxInFlight; }
+
+	/**
+	 * Platform threads, one per processor, with twice as many figures in flight.
+	 */
+	public BatchFigureProcessor()
+	{
+		this(Runtime.getRuntime().availableProcessors(), Threads.PLATFORM, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param threads -- the number of platform threads (ignored for virtual threads)
+	 * @param kind -- platform or virtual threads
+	 * @param maxInFlight -- the maximum number of figures being processed (or awaiting output) at once
+	 */
+	public BatchFigureProcessor(int threads, Threads kind, int maxInFlight)
+	{
+		if (threads < 1) throw new IllegalArgumentException("At least one thread is required: " + threads);
+		if (maxInFlight < 1) throw new IllegalArgumentException("At least one figure must be in flight: " + maxInFlight);
+
+		_threads = threads;
+		_kind = kind;
+		_maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * @param paths -- directories (whose .json files are processed, in name order) and individual files
+	 * @return the figure files to process
+	 */
+	public static List<Path> collectFigures(List<Path> paths) throws IOException
+	{
+		List<Path> figures = new ArrayList<Path>();
+
+		for (Path path : paths)
+		{
+			if (!Files.isDirectory(path))
+			{
+				figures.add(path);
+				continue;
+			}
+
+			try (Stream<Path> files = Files.list(path))
+			{
+				files.filter((file) -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(".json"))
+				     .sorted()
+				     .forEach(figures::add);
+			}
+		}
+
+		return figures;
+	}
+
+	/**
+	 * Process each figure, writing one line of JSON per figure (in order of completion).
+	 *
+	 * @param figures -- the figure files
+	 * @param out -- the destination of the results; lines are written whole and flushed
+	 * @return the number of figures that failed
+	 * @throws IOException if the results could not be written
+	 */
+	public int process(List<Path> figures, Writer out) throws IOException, InterruptedException
+	{
+		PrintWriter writer = new PrintWriter(out);
+		Semaphore inFlight = new Semaphore(_maxInFlight);
+		AtomicInteger failures = new AtomicInteger();
+
+		ExecutorService pool = createPool();
+		try
+		{
+			for (Path figure : figures)
+			{
+				inFlight.acquire();
+
+				pool.execute(() -> {
+					try
+					{
+						// Every figure writes a line, whatever ended its processing
+						JSONObject result;
+						try
+						{
+							result = processFigure(figure);
+						}
+						catch (Throwable e)
+						{
+							result = new JSONObject();
+							result.put("file", figure.toString());
+							recordError(result, e);
+						}
+						if (result.has("error")) failures.incrementAndGet();
+
+						synchronized (writer)
+						{
+							writer.println(result.toString());
+							writer.flush();
+						}
+					}
+					finally
+					{
+						inFlight.release();
+					}
+				});
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+
+		// PrintWriter does not throw; it only records that a write failed
+		if (writer.checkError()) throw new IOException("The results could not be written");
+
+		return failures.get();
+	}
+
+	/*
+	 * A fixed pool of platform threads or, where available (Java 21+), a virtual thread per task.
+	 */
+	private ExecutorService createPool()
+	{
+		if (_kind == Threads.VIRTUAL)
+		{
+			try
+			{
+				return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			}
+			catch (ReflectiveOperationException e)
+			{
+				// Virtual threads are not available in this runtime; fall back on platform threads
+			}
+		}
+
+		return Executors.newFixedThreadPool(_threads);
+	}
+
+	/**
+	 * Run a single figure through the pipeline.
+	 *
+	 * @param figure -- a figure file
+	 * @return the counts and timings (milliseconds) of each step, or the error that ended processing
+	 */
+	public static JSONObject processFigure(Path figure)
+	{
+		JSONObject result = new JSONObject();
+		result.put("file", figure.toString());
+
+		long start = System.nanoTime();
+		long step = start;
+		try
+		{
+			FigureNode node = InputFacade.extractFigure(figure.toString());
+			Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation(node);
+			result.put("points", pair.getKey().size());
+			result.put("givenSegments", pair.getValue().size());
+			step = lap(result, "parseMs", step);
+
+			Preprocessor pp = new Preprocessor(pair.getKey(), pair.getValue());
+			Map<Segment, Segment> segments = pp.getAllSegments();
+			result.put("implicitPoints", pp.getImplicitPoints().size());
+			result.put("minimalSegments", pp.getMinimalSegments().size());
+			result.put("segments", segments.size());
+			step = lap(result, "preprocessMs", step);
+
+			AngleEquivalenceClasses angles = new AngleIdentifier(segments).getAngles();
+			result.put("angles", angles.size());
+			result.put("angleClasses", angles.numClasses());
+			step = lap(result, "anglesMs", step);
+
+			result.put("triangles", new TriangleIdentifier(segments).getTriangles().size());
+			step = lap(result, "trianglesMs", step);
+		}
+		catch (Throwable e)
+		{
+			recordError(result, e);
+		}
+
+		result.put("totalMs", (System.nanoTime() - start) / 1e6);
+
+		return result;
+	}
+
+	private static void recordError(JSONObject result, Throwable e)
+	{
+		result.put("error", e.getClass().getName());
+		result.put("message", String.valueOf(e.getMessage()));
+	}
+
+	private static long lap(JSONObject result, String key, long since)
+	{
+		long now = System.nanoTime();
+		result.put(key, (now - since) / 1e6);
+		return now;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		int inFlight = -1;
+		Threads kind = Threads.PLATFORM;
+		List<Path> paths = new ArrayList<Path>();
+
+		for (int i = 0; i < args.length; i++)
+		{
+			switch (args[i])
+			{
+				case "-t": threads = Integer.parseInt(args[++i]); break;
+				case "-n": inFlight = Integer.parseInt(args[++i]); break;
+				case "--virtual": kind = Threads.VIRTUAL; break;
+				default: paths.add(Path.of(args[i]));
+			}
+		}
+
+		if (paths.isEmpty())
+		{
+			System.err.println("Usage: BatchFigureProcessor [-t threads] [-n in-flight] [--virtual] (directory | file)...");
+			System.exit(2);
+		}
+
+		BatchFigureProcessor processor = new BatchFigureProcessor(threads, kind, inFlight > 0 ? inFlight : 2 * threads);
+
+		int failures = processor.process(collectFigures(paths), new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+		System.exit(failures == 0 ? 0 : 1);
+	}
+}
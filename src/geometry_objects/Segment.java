@@ -19,11 +19,39 @@ public class Segment extends GeometricObject
 	protected double _length;
 	protected double _slope;
 
+	//
+	// Geometry computed once at construction:
+	//    * the axis-aligned bounding box
+	//    * the slack by which the bounding box is widened to enclose every point within
+	//      tolerance of the segment (see GeometryUtilities.between)
+	//    * the unit direction (point1 -> point2)
+	//    * the line in normalized form: a*x + b*y = c with (a, b) a unit normal
+	//    * the y-intercept of the line: y = slope * x + intercept (non-vertical segments)
+	//    * vertical / horizontal classification
+	//
+	protected final double _minX, _minY, _maxX, _maxY;
+	protected final double _slackX, _slackY;
+	protected final double _directionX, _directionY;
+	protected final double _lineA, _lineB, _lineC;
+	protected final double _intercept;
+	protected final boolean _vertical, _horizontal;
+
 	public Point getPoint1() { return _point1; }
 	public Point getPoint2() { return _point2; }
 	public double length() { return _length; }
 	public double slope() {	return _slope; }
 
+	public double minX() { return _minX; }
+	public double minY() { return _minY; }
+	public double maxX() { return _maxX; }
+	public double maxY() { return _maxY; }
+	public double directionX() { return _directionX; }
+	public double directionY() { return _directionY; }
+	public double lineA() { return _lineA; }
+	public double lineB() { return _lineB; }
+	public double lineC() { return _lineC; }
+	public double intercept() { return _intercept; }
+
 	public Segment(Segment in) { this(in._point1, in._point2); }
 	public Segment(Point p1, Point p2)
 	{
@@ -36,6 +64,62 @@ public class Segment extends GeometricObject
 		catch(ArithmeticException ae) {
 			_slope = Double.POSITIVE_INFINITY;
 		}
+
+		_minX = Math.min(p1.getX(), p2.getX());
+		_minY = Math.min(p1.getY(), p2.getY());
+		_maxX = Math.max(p1.getX(), p2.getX());
+		_maxY = Math.max(p1.getY(), p2.getY());
+
+		_vertical = MathUtilities.doubleEquals(p1.getX(), p2.getX());
+		_horizontal = MathUtilities.doubleEquals(p1.getY(), p2.getY());
+
+		_directionX = _length == 0 ? 0 : (p2.getX() - p1.getX()) / _length;
+		_directionY = _length == 0 ? 0 : (p2.getY() - p1.getY()) / _length;
+
+		// Unit normal with a canonical sign: a > 0, or a == 0 and b > 0
+		double a = -_directionY;
+		double b = _directionX;
+		if (a < 0 || (a == 0 && b < 0)) { a = -a; b = -b; }
+		_lineA = a;
+		_lineB = b;
+		_lineC = a * p1.getX() + b * p1.getY();
+		_intercept = p2.getY() - _slope * p2.getX();
+
+		//
+		// Points within tolerance of the segment lie inside an ellipse with foci at the
+		// endpoints and semi-axes (L + EPSILON) / 2 along and sqrt(2 * L * EPSILON + EPSILON^2) / 2
+		// across the segment; the slack is the extent of that ellipse beyond the bounding box.
+		//
+		double eps = MathUtilities.EPSILON;
+		double along = (_length + eps) / 2;
+		double across = Math.sqrt(2 * _length * eps + eps * eps) / 2;
+		double halfX = _length == 0 ? along : Math.hypot(along * _directionX, across * _directionY);
+		double halfY = _length == 0 ? along : Math.hypot(along * _directionY, across * _directionX);
+		_slackX = halfX - (_maxX - _minX) / 2 + eps;
+		_slackY = halfY - (_maxY - _minY) / 2 + eps;
+	}
+
+	/*
+	 * @param pt -- a point
+	 * @return false if @pt cannot lie on this segment: it is outside the bounding box
+	 *         (widened by the tolerance of pointLiesOnSegment)
+	 */
+	public boolean boundingBoxContains(Point pt) { return boundingBoxContains(pt.getX(), pt.getY()); }
+	public boolean boundingBoxContains(double x, double y)
+	{
+		return _minX - _slackX <= x && x <= _maxX + _slackX &&
+		       _minY - _slackY <= y && y <= _maxY + _slackY;
+	}
+
+	/*
+	 * @param that -- a segment
+	 * @return false if the segments cannot share a point: the bounding boxes
+	 *         (widened by the tolerance of pointLiesOnSegment) do not overlap
+	 */
+	public boolean boundingBoxOverlaps(Segment that)
+	{
+		return _minX - _slackX <= that._maxX + that._slackX && that._minX - that._slackX <= _maxX + _slackX &&
+		       _minY - _slackY <= that._maxY + that._slackY && that._minY - that._slackY <= _maxY + _slackY;
 	}
 
 	/*
@@ -62,6 +146,12 @@ public class Segment extends GeometricObject
 	 */
 	public boolean pointLiesBetweenEndpoints(Point pt) { return SegmentDelegate.pointLiesBetweenEndpoints(this, pt); }
 
+	/*
+	 * @param x, y -- coordinates of a point
+	 * @return true if the point is on the segment (EXcluding endpoints); finite examination only
+	 */
+	public boolean pointLiesBetweenEndpoints(double x, double y) { return SegmentDelegate.pointLiesBetweenEndpoints(this, x, y); }
+
 	/**
 	 * Does this segment contain a subsegment?
 	 *   Example:
@@ -114,6 +204,7 @@ public class Segment extends GeometricObject
 	@Override
 	public boolean equals(Object obj)
 	{
+		if (this == obj) return true;
 		if (obj == null) return false;
 		
 		if (!(obj instanceof Segment)) return false;
@@ -134,15 +225,25 @@ public class Segment extends GeometricObject
 	 */
 	public boolean has(Point pt) { return _point1.equals(pt) || _point2.equals(pt); }
 
+	/*
+	 * @param x, y -- coordinates of a point
+	 * @return true if (x, y) is one of the endpoints of this segment
+	 */
+	public boolean has(double x, double y)
+	{
+		return (MathUtilities.doubleEquals(_point1.getX(), x) && MathUtilities.doubleEquals(_point1.getY(), y)) ||
+		       (MathUtilities.doubleEquals(_point2.getX(), x) && MathUtilities.doubleEquals(_point2.getY(), y));
+	}
+
 	/*
 	 * @return true if this segment is horizontal (by analysis of both endpoints having same y-coordinate)
 	 */
-	public boolean isHorizontal() { return MathUtilities.doubleEquals(_point1.getY(), _point2.getY()); }
+	public boolean isHorizontal() { return _horizontal; }
 
 	/*
 	 * @return true if this segment is vertical (by analysis of both endpoints having same x-coordinate)
 	 */
-	public boolean isVertical() { return MathUtilities.doubleEquals(_point1.getX(), _point2.getX()); }
+	public boolean isVertical() { return _vertical; }
 
 	/*
 	 * @param pt -- one of the endpoints of this segment
@@ -182,6 +283,9 @@ public class Segment extends GeometricObject
 		
 		// if the segments do not coincide, return false
 		if (!this.isCollinearWith(that)) return false;
+
+		// if the segments are apart, they cannot overlap
+		if (!this.boundingBoxOverlaps(that)) return true;
 		
 		// if they coincide, but they overlap beyond the endpoints, return false
         if (this.pointLiesBetweenEndpoints(that.getPoint1()) ||
@@ -18,12 +18,42 @@ public class Triangle
 	protected Segment _segmentB;
 	protected Segment _segmentC;
 
+	//
+	// The canonical identity of a triangle whose vertices are entries of a single database:
+	// the ids of the vertices, sorted and packed KEY_BITS apiece; NO_KEY otherwise. The hash
+	// mixes the (sorted) hashes of the vertices, so equal triangles hash alike whether or not
+	// they are keyed. Both are computed once, on construction.
+	//
+	public static final long NO_KEY = -1;
+	private static final int KEY_BITS = 21;
+
+	protected long _key;
+	protected int _hash;
+
 	public Triangle(List<Segment> segs) throws FactException
 	{
 		if (!isValidTriangle(segs)) throw new FactException();
 
 		setTriangle(segs);
 	}
+
+	private Triangle() {}
+
+	/**
+	 * Construct the triangle bounded by 3 segments; unlike the constructor, segments that
+	 * do not constitute a triangle are reported without the cost of an exception.
+	 * 
+	 * @return the triangle; null if the segments do not constitute a legitimate triangle
+	 */
+	public static Triangle create(Segment s1, Segment s2, Segment s3)
+	{
+		if (!isValidTriangle(s1, s2, s3)) return null;
+
+		Triangle triangle = new Triangle();
+		triangle.setTriangle(List.of(s1, s2, s3));
+
+		return triangle;
+	}
 	
 	/**
 	 * Determine if these 3 segments constitute a legitimate triangle.
@@ -39,10 +69,14 @@ public class Triangle
 		// 3 sides
 		if (segs.size() != 3) return false;
 
+		return isValidTriangle(segs.get(0), segs.get(1), segs.get(2));
+	}
+	public static boolean isValidTriangle(Segment s1, Segment s2, Segment s3)
+	{
 		// Gather distinct endpoints
-		Point endpoint1 = segs.get(0).sharedVertex(segs.get(1));
-		Point endpoint2 = segs.get(1).sharedVertex(segs.get(2));
-		Point endpoint3 = segs.get(0).sharedVertex(segs.get(2));
+		Point endpoint1 = s1.sharedVertex(s2);
+		Point endpoint2 = s2.sharedVertex(s3);
+		Point endpoint3 = s1.sharedVertex(s3);
 		
 		// 3 endpoints must be shared.
 		if (endpoint1 == null || endpoint2 == null || endpoint3 == null) return false;
@@ -52,9 +86,9 @@ public class Triangle
 		//       avoids the case where          A --- B -- C
 		// the 3 segments are AB, AC, and BC.
 		//
-		if (segs.get(0).isCollinearWith(segs.get(1)) ||
-			segs.get(0).isCollinearWith(segs.get(2)) ||
-			segs.get(1).isCollinearWith(segs.get(2))) return false;
+		if (s1.isCollinearWith(s2) ||
+			s1.isCollinearWith(s3) ||
+			s2.isCollinearWith(s3)) return false;
 		
 		// 3 distinct endpoints must be shared.
 		if (endpoint1.equals(endpoint2) ||
@@ -80,8 +114,44 @@ public class Triangle
 		_point2 = _segmentA.getPoint2();
 		_point3 = _point1.equals(_segmentB.getPoint1()) ||
 				  _point2.equals(_segmentB.getPoint1()) ? _segmentB.getPoint2() : _segmentB.getPoint1();
+
+		_key = key(_point1, _point2, _point3);
+		_hash = hash(_point1.hashCode(), _point2.hashCode(), _point3.hashCode());
+	}
+
+	/*
+	 * @return the sorted ids of the points packed into a long; NO_KEY if the points are not
+	 *         entries of the same database or an id does not fit in KEY_BITS
+	 */
+	private static long key(Point p1, Point p2, Point p3)
+	{
+		if (!p1.isInternedWith(p2) || !p1.isInternedWith(p3)) return NO_KEY;
+
+		int a = p1.getId(), b = p2.getId(), c = p3.getId();
+		if (((a | b | c) >>> KEY_BITS) != 0) return NO_KEY;
+
+		int lo = Math.min(a, Math.min(b, c));
+		int hi = Math.max(a, Math.max(b, c));
+		int mid = a + b + c - lo - hi;
+
+		return ((long)lo << (2 * KEY_BITS)) | ((long)mid << KEY_BITS) | hi;
 	}
 
+	/*
+	 * @return a hash of the vertex hashes independent of their order (unlike a sum, vertex
+	 *         hashes that merely sum alike do not collide)
+	 */
+	private static int hash(int h1, int h2, int h3)
+	{
+		int lo = Math.min(h1, Math.min(h2, h3));
+		int hi = Math.max(h1, Math.max(h2, h3));
+		int mid = h1 + h2 + h3 - lo - hi;
+
+		return 31 * (31 * lo + mid) + hi;
+	}
+
+	public long getKey() { return _key; }
+
 	/*
 	 * @param pt -- a point 
 	 * @return true if @pt is one of the vertices
@@ -91,7 +161,7 @@ public class Triangle
 	@Override
 	public int hashCode()
 	{
-		return _point1.hashCode() + _point2.hashCode() + _point3.hashCode();
+		return _hash;
 	}
 	
 	@Override
@@ -99,9 +169,12 @@ public class Triangle
 	{
 		if (this == obj) return true;
 		if (obj == null) return false;
-		if (!(this instanceof Triangle)) return false;
+		if (!(obj instanceof Triangle)) return false;
 		Triangle that = (Triangle)obj ;
 
+		// Triangles keyed by the same database: the same vertices exactly when the same ids
+		if (_key != NO_KEY && that._key != NO_KEY && _point1.isInternedWith(that._point1)) return _key == that._key;
+
 		return that.has(this._point1) &&
 			   that.has(this._point2) &&
 			   that.has(this._point3);
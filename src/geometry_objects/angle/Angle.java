@@ -31,6 +31,25 @@ public class Angle implements Comparable<Angle>
 	public double getMeasure() { return _measure; }
 
 	public Point getVertex() { return _vertex; }
+
+	//
+	// The directions of the rays from the vertex, if assigned (by AngleIdentifier, for all
+	// rays at the vertex at once): 2 * line + side such that rays along the same line through
+	// the vertex share a line and rays also pointing the same way share a side.
+	//
+	public static final int NO_DIRECTION = -1;
+
+	protected int _ray1Direction = NO_DIRECTION;
+	protected int _ray2Direction = NO_DIRECTION;
+	public int getRay1Direction() { return _ray1Direction; }
+	public int getRay2Direction() { return _ray2Direction; }
+	public boolean hasDirections() { return _ray1Direction != NO_DIRECTION && _ray2Direction != NO_DIRECTION; }
+
+	/**
+	 * @param direction -- the direction of a ray
+	 * @return the line through the vertex along which the ray lies
+	 */
+	public static int line(int direction) { return direction >> 1; }
 	
 	public Angle(Segment ray1, Segment ray2)  throws FactException
 	{
@@ -40,6 +59,39 @@ public class Angle implements Comparable<Angle>
 		
 		initAngle(vertex, ray1, ray2);
 	}
+
+	private Angle() {}
+
+	/**
+	 * Construct the angle formed by two rays; unlike the constructor, rays that do
+	 * not form an angle are reported without the cost of an exception.
+	 * 
+	 * @return the angle; null if the rays share no vertex, have redundant vertices or form an angle of measure zero
+	 */
+	public static Angle create(Segment ray1, Segment ray2)
+	{
+		Point vertex = ray1.sharedVertex(ray2);
+		if (vertex == null) return null;
+
+		Angle angle = new Angle();
+
+		return angle.init(vertex, ray1, ray2) ? angle : null;
+	}
+
+	/**
+	 * @param direction1, direction2 -- the directions of the rays from their shared vertex
+	 * @return the angle formed by the two rays (see above) with the directions of its rays
+	 */
+	public static Angle create(Segment ray1, Segment ray2, int direction1, int direction2)
+	{
+		Angle angle = create(ray1, ray2);
+		if (angle == null) return null;
+
+		angle._ray1Direction = direction1;
+		angle._ray2Direction = direction2;
+
+		return angle;
+	}
 	
 	/**
 	 * Common initialization routine for angles
@@ -48,12 +100,23 @@ public class Angle implements Comparable<Angle>
 	 * @param c --  A point defining the angle.
 	 */
 	private void initAngle(Point vertex, Segment r1, Segment r2) throws FactException
+	{
+		if (init(vertex, r1, r2)) return;
+
+		if (_vertex == null) throw new FactException("Angle constructed with redundant vertices.");
+
+		throw new FactException("Measure of " + this.toString() + " is ZERO");
+	}
+
+	/*
+	 * @return true if the rays form an angle: distinct vertices and a positive measure
+	 */
+	private boolean init(Point vertex, Segment r1, Segment r2)
 	{
 		Point other1 = r1.other(vertex);
 		Point other2 = r2.other(vertex);
 		
-		if (vertex.equals(other1) || vertex.equals(other2) || other1.equals(other2))
-			throw new FactException("Angle constructed with redundant vertices.");
+		if (vertex.equals(other1) || vertex.equals(other2) || other1.equals(other2)) return false;
 
 		_ray1Endpoint = other1;
 		_vertex = vertex;
@@ -64,7 +127,9 @@ public class Angle implements Comparable<Angle>
 
 		_measure = Math.toDegrees(findAngle(_ray1Endpoint, _vertex, _ray2Endpoint));
 
-		if (_measure <= 0) throw new FactException("Measure of " + this.toString() + " is ZERO");
+		if (_measure <= 0) return false;
+
+		return true;
 	}
 	
 	/**
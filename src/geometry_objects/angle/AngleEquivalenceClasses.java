@@ -1,12 +1,15 @@
 package geometry_objects.angle;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import geometry_objects.angle.comparators.AngleStructureComparator;
+import geometry_objects.points.Point;
 import utilities.eq_classes.EquivalenceClasses;
 import utilities.eq_classes.LinkedEquivalenceClass;
+import utilities.math.MathUtilities;
 
 /**
  * Given the figure below:
@@ -27,8 +30,22 @@ import utilities.eq_classes.LinkedEquivalenceClass;
  */
 public class AngleEquivalenceClasses extends EquivalenceClasses<Angle> {
 	
+	//
+	// Angles are only in the same class if they share a vertex and a measure; the classes
+	// are indexed by the vertex and measure of their first angle:
+	//    vertex -> measure (rounded to a multiple of EPSILON) -> indices of the classes (ascending)
+	// Equal measures round to the same or adjacent multiples.
+	//
+	protected Map<Point, Map<Long, List<Integer>>> _index;
+
 	public AngleEquivalenceClasses() {
 		super(new AngleStructureComparator());
+
+		_index = new HashMap<Point, Map<Long, List<Integer>>>();
+	}
+	
+	private static long measureKey(Angle angle) {
+		return Math.round(angle.getMeasure() / MathUtilities.EPSILON);
 	}
 	
 	/**                                                                                  
@@ -41,6 +58,58 @@ public class AngleEquivalenceClasses extends EquivalenceClasses<Angle> {
 		AngleLinkedEquivalenceClass equivalence = new AngleLinkedEquivalenceClass();
     	equivalence.add(angle);
     	
+    	index(angle, _classes.size());
+
     	return _classes.add(equivalence);
     }
+
+	/**
+	 * Append a class of another collection of classes; no class of this collection
+	 * may share an angle with it (as is the case for classes at different vertices).
+	 * @param source
+	 * @param index -- the index of the class in @source
+	 */
+	public void appendClass(AngleEquivalenceClasses source, int index) {
+		LinkedEquivalenceClass<Angle> aClass = source._classes.get(index);
+
+		index(aClass.canonical(), _classes.size());
+
+		_classes.add(aClass);
+	}
+
+	private void index(Angle angle, int classIndex) {
+		_index.computeIfAbsent(angle.getVertex(), (vertex) -> new HashMap<Long, List<Integer>>())
+		      .computeIfAbsent(measureKey(angle), (measure) -> new ArrayList<Integer>())
+		      .add(classIndex);
+	}
+
+	/**
+	 * Only the classes at the angle's vertex with an equal measure are considered.
+	 * @param angle
+	 * @return index of the first class the angle belongs to or -1 if not found
+	 */
+	@Override
+	protected int indexOfClassBelongs(Angle angle) {
+		if (angle == null) return -1;
+
+		Map<Long, List<Integer>> atVertex = _index.get(angle.getVertex());
+		if (atVertex == null) return -1;
+
+		long measure = measureKey(angle);
+		int first = -1;
+		for (long key = measure - 1; key <= measure + 1; key++) {
+			List<Integer> candidates = atVertex.get(key);
+			if (candidates == null) continue;
+
+			for (int index : candidates) {
+				if (first != -1 && index > first) break;
+
+				if (_classes.get(index).belongs(angle)) {
+					first = index;
+					break;
+				}
+			}
+		}
+		return first;
+	}
 }
\ No newline at end of file
@@ -65,13 +65,16 @@ public class AngleStructureComparator implements Comparator<Angle>
 		if (left == null || right == null) return STRUCTURALLY_INCOMPARABLE;
 		
 		if(left.equals(right)) return 1;
-		System.out.println("gets: " + right + " " + left);
+
 		// check they share a vertex
 		if (left.getVertex() != right.getVertex()) return STRUCTURALLY_INCOMPARABLE;
 		
 		// checks that the measure of the two angles are the same
 		if(!MathUtilities.doubleEquals(left.getMeasure(), right.getMeasure())) return STRUCTURALLY_INCOMPARABLE;
 		
+		// the directions of the rays are known: integer comparisons suffice
+		if (left.hasDirections() && right.hasDirections()) return compareByDirection(left, right);
+		
 		// checks if left's 1st ray corresponds with one of right's rays
 		// if so, saves which one
 		// if not, the angles are structurally incomparable
@@ -93,7 +96,7 @@ public class AngleStructureComparator implements Comparator<Angle>
 		// check that all of the edge points are on the same side of the vertex
 		// as their corresponder
 		if(!MathUtilities.doubleEquals(left.getMeasure(), 180)) {
-			Point vertex = left.getRay1().sharedVertex(left.getRay2());
+			Point vertex = left.getVertex();
 			
 			Point leftEdge1 = left.getRay1().other(vertex);
 			Point leftEdge2 = left.getRay2().other(vertex);
@@ -110,6 +113,42 @@ public class AngleStructureComparator implements Comparator<Angle>
 				return STRUCTURALLY_INCOMPARABLE;
 		}
 		
+		return compareLengths(left, leftRay1Corresponder, leftRay2Corresponder);
+	}
+
+	/*
+	 * The algorithm above for angles (at the same vertex, with the same measure) whose
+	 * ray directions are known: rays are collinear if they lie along the same line and
+	 * on the same side of the vertex if their directions are equal.
+	 */
+	private static int compareByDirection(Angle left, Angle right)
+	{
+		int left1 = left.getRay1Direction();
+		int left2 = left.getRay2Direction();
+		int right1 = right.getRay1Direction();
+		int right2 = right.getRay2Direction();
+
+		Segment leftRay1Corresponder = null;
+		int corresponder1 = Angle.NO_DIRECTION;
+		if (Angle.line(left1) == Angle.line(right1)) { leftRay1Corresponder = right.getRay1(); corresponder1 = right1; }
+		if (Angle.line(left1) == Angle.line(right2)) { leftRay1Corresponder = right.getRay2(); corresponder1 = right2; }
+		if (leftRay1Corresponder == null) return STRUCTURALLY_INCOMPARABLE;
+
+		Segment leftRay2Corresponder = null;
+		int corresponder2 = Angle.NO_DIRECTION;
+		if (Angle.line(left2) == Angle.line(right2)) { leftRay2Corresponder = right.getRay2(); corresponder2 = right2; }
+		if (Angle.line(left2) == Angle.line(right1)) { leftRay2Corresponder = right.getRay1(); corresponder2 = right1; }
+		if (leftRay2Corresponder == null) return STRUCTURALLY_INCOMPARABLE;
+
+		// edge points on the same side of the vertex as their corresponder
+		if (!MathUtilities.doubleEquals(left.getMeasure(), 180) && (left1 != corresponder1 || left2 != corresponder2))
+			return STRUCTURALLY_INCOMPARABLE;
+
+		return compareLengths(left, leftRay1Corresponder, leftRay2Corresponder);
+	}
+
+	private static int compareLengths(Angle left, Segment leftRay1Corresponder, Segment leftRay2Corresponder)
+	{
 		// checks both rays for the left angle are greater than
 		// or equal in length to the corresponding rays in the right angle
 		// if so, return 1
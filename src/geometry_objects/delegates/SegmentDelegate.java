@@ -59,9 +59,9 @@ public class SegmentDelegate extends FigureDelegate
 	 */
 	public static boolean pointLiesOnSegment(Segment segment, Point pt)
 	{
-		if (pt == null) return false;
+		if (pt == null || !segment.boundingBoxContains(pt)) return false;
 
-		return GeometryUtilities.between(pt, segment.getPoint1(), segment.getPoint2());
+		return GeometryUtilities.between(pt, segment.getPoint1(), segment.getPoint2(), segment.length());
 	}
 
 	/*
@@ -70,8 +70,19 @@ public class SegmentDelegate extends FigureDelegate
 	 */
 	public static boolean pointLiesBetweenEndpoints(Segment segment, Point pt)
 	{
-		if (pt == null || segment.has(pt)) return false;
+		if (pt == null) return false;
+
+		return pointLiesBetweenEndpoints(segment, pt.getX(), pt.getY());
+	}
+
+	/*
+	 * @param x, y -- coordinates of a point
+	 * @return true if the point is on the segment (EXcluding endpoints); finite examination only
+	 */
+	public static boolean pointLiesBetweenEndpoints(Segment segment, double x, double y)
+	{
+		if (!segment.boundingBoxContains(x, y) || segment.has(x, y)) return false;
 
-		return GeometryUtilities.between(pt, segment.getPoint1(), segment.getPoint2());
+		return GeometryUtilities.between(x, y, segment.getPoint1(), segment.getPoint2(), segment.length());
 	}
 }
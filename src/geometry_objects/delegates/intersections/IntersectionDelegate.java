@@ -18,4 +18,14 @@ public class IntersectionDelegate extends FigureDelegate
 
         return null;
     }
+
+    /*
+     * <Segment, Segment> Intersection (finite treatment of segments) without allocation
+     * @param out -- receives the intersection coordinates {x, y}
+     * @return true if the segments intersect
+     */
+    public static boolean segmentIntersection(Segment thisS, Segment that, double[] out)
+    {
+        return SegmentIntersectionDelegate.findIntersection(thisS, that, out);
+    }
 }
@@ -2,13 +2,19 @@ package geometry_objects.delegates.intersections;
 
 import geometry_objects.points.Point;
 import geometry_objects.Segment;
-import utilities.OutTriple;
 
 /*
  * This class treats all lines as infinite (in both directions)
  */
 public class LineIntersectionDelegate
 {
+    //
+    // Status codes of the primitive intersection
+    //
+    public static final int NO_INTERSECTION = 0; // coinciding lines
+    public static final int SHARED_VERTEX = 1;   // the segments share an endpoint
+    public static final int INTERSECTION = 2;    // the lines cross (coordinates may be non-finite for parallel lines)
+
     /*
      * <Line, Line> intersection
      * @param thisS -- (this Segment)
@@ -16,78 +22,81 @@ public class LineIntersectionDelegate
      * @return the point at which these lines (infinite) intersection; null for coinciding lines
      */
     public static Point intersection(Segment thisS, Segment that)
+    {
+        double[] xy = new double[2];
+
+        switch (intersection(thisS, that, xy))
+        {
+            case SHARED_VERTEX: return thisS.sharedVertex(that);
+            case INTERSECTION:  return new Point("", xy[0], xy[1]);
+            default:            return null;
+        }
+    }
+
+    /*
+     * <Line, Line> intersection without allocation
+     * @param thisS -- (this Segment)
+     * @param that -- a Segment to intersect with
+     * @param out -- receives the intersection coordinates {x, y} unless NO_INTERSECTION is returned
+     * @return NO_INTERSECTION, SHARED_VERTEX, or INTERSECTION
+     */
+    public static int intersection(Segment thisS, Segment that, double[] out)
     {
         // Special Case: Collinear, but non-overlapping.
-        if (thisS.coincideWithoutOverlap(that)) return null;
+        if (thisS.coincideWithoutOverlap(that)) return NO_INTERSECTION;
 
         // Special Case: Intersect at an endpoint
         Point shared = thisS.sharedVertex(that);
-        if (shared != null) return shared;
-
-        double a, b, c, d, e, f;
-        final String name = "";
+        if (shared != null) return set(out, shared.getX(), shared.getY(), SHARED_VERTEX);
 
-        if (thisS.isVertical() && that.isHorizontal()) return new Point(name, thisS.getPoint1().getX(), that.getPoint1().getY());
+        if (thisS.isVertical() && that.isHorizontal()) return set(out, thisS.getPoint1().getX(), that.getPoint1().getY(), INTERSECTION);
 
-        if (that.isVertical() && thisS.isHorizontal()) return new Point(name, that.getPoint1().getX(), thisS.getPoint1().getY());
+        if (that.isVertical() && thisS.isHorizontal()) return set(out, that.getPoint1().getX(), thisS.getPoint1().getY(), INTERSECTION);
 
-        OutTriple<Double, Double, Double> out = new OutTriple<Double, Double, Double>(); 
+        //
+        // Each (non-vertical) segment caches its line as y = slope * x + intercept;
+        // that is, ax + by = e with a = -slope, b = 1, e = intercept
+        //
         if (thisS.isVertical())
         {
-            makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);// a, out b, out e);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-            return new Point(name, thisS.getPoint1().getX(), evaluateYGivenX(a, b, e, thisS.getPoint1().getX()));
+            double x = thisS.getPoint1().getX();
+            return set(out, x, evaluateYGivenX(-that.slope(), 1, that.intercept(), x), INTERSECTION);
         }
         if (that.isVertical())
         {
-            makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-            return new Point(name, that.getPoint1().getX(), evaluateYGivenX(a, b, e, that.getPoint1().getX()));
+            double x = that.getPoint1().getX();
+            return set(out, x, evaluateYGivenX(-thisS.slope(), 1, thisS.intercept(), x), INTERSECTION);
         }
         if (thisS.isHorizontal())
         {
-            makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-
-            return new Point(name, evaluateXGivenY(a, b, e, thisS.getPoint1().getY()), thisS.getPoint1().getY());
+            double y = thisS.getPoint1().getY();
+            return set(out, evaluateXGivenY(-that.slope(), 1, that.intercept(), y), y, INTERSECTION);
         }
         if (that.isHorizontal())
         {
-            makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-
-            return new Point(name, evaluateXGivenY(a, b, e, that.getPoint1().getY()), that.getPoint1().getY());
+            double y = that.getPoint1().getY();
+            return set(out, evaluateXGivenY(-thisS.slope(), 1, thisS.intercept(), y), y, INTERSECTION);
         }
 
         //
         // ax + by = e
         // cx + dy = f
         // 
+        double a = -thisS.slope(), b = 1, e = thisS.intercept();
+        double c = -that.slope(),  d = 1, f = that.intercept();
 
-        makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-        a = out.getFirst();
-        b = out.getSecond();
-        e = out.getThird();
-
-        makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);
-        c = out.getFirst();
-        d = out.getSecond();
-        f = out.getThird();
-
-        
         double overallDeterminant = a * d - b * c;
         double x = determinant(e, b, f, d) / overallDeterminant;
         double y = determinant(a, e, c, f) / overallDeterminant;
 
-        return new Point(name, x, y);
+        return set(out, x, y, INTERSECTION);
+    }
+
+    private static int set(double[] out, double x, double y, int status)
+    {
+        out[0] = x;
+        out[1] = y;
+        return status;
     }
     
     //
@@ -102,16 +111,6 @@ public class LineIntersectionDelegate
         return a * d - b * c;
     }
 
-    private static void makeLine(double x_1, double y_1, double x_2, double y_2, OutTriple<Double, Double, Double> out)
-    {
-        double slope = (y_2 - y_1) / (x_2 - x_1);
-        double a = - slope;
-        double b = 1;
-        double c = y_2 - slope * x_2;
-
-        out.set(a, b, c);
-    }
-
     private static double evaluateYGivenX(double a, double b, double e, double x)
     {
         // ax + by = e
@@ -14,15 +14,31 @@ public class SegmentIntersectionDelegate extends FigureDelegate
      */
     public static Point findIntersection(Segment thisS, Segment that)
     {
-        // <line, line> intersection
-        Point inter = LineIntersectionDelegate.intersection(thisS, that);
- 
+        double[] xy = new double[2];
+
+        if (!findIntersection(thisS, that, xy)) return null;
+
+        return new Point("", xy[0], xy[1]);
+    }
+
+    /*
+     * <Segment, Segment> intersection without allocation
+     * @param thisS -- (this Segment)
+     * @param that -- a Segment to intersect with
+     * @param out -- receives the intersection coordinates {x, y}; meaningful only if true is returned
+     * @return true if @thisS and @that intersect at a point strictly between the endpoints of both
+     */
+    public static boolean findIntersection(Segment thisS, Segment that, double[] out)
+    {
+        // Segments that are apart cannot intersect
+        if (!thisS.boundingBoxOverlaps(that)) return false;
+
+        // <line, line> intersection; a shared endpoint is not between the endpoints
+        if (LineIntersectionDelegate.intersection(thisS, that, out) != LineIntersectionDelegate.INTERSECTION) return false;
+
         // Point lies on both segments
-        
-        if (!thisS.pointLiesBetweenEndpoints(inter)) return null;
+        if (!thisS.pointLiesBetweenEndpoints(out[0], out[1])) return false;
 
-        if (!that.pointLiesBetweenEndpoints(inter)) return null;
-        
-        return inter;        
+        return that.pointLiesBetweenEndpoints(out[0], out[1]);
     }
 }
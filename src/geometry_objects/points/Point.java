@@ -28,6 +28,54 @@ public class Point implements Comparable<Point>
 	protected String _name; 
 	public String getName() { return _name; }
 
+	//
+	// A point interned in a PointNamingFactory (the database entry) carries a dense
+	// id: 0, 1, 2, ... in order of insertion into that factory; -1 otherwise.
+	//
+	public static final int NO_ID = -1;
+
+	protected int _id;
+	protected PointNamingFactory _owner;
+
+	public int getId() { return _id; }
+	public boolean isInterned() { return _owner != null; }
+
+	/**
+	 * @return true if both points are entries of the same database (their ids are comparable)
+	 */
+	public boolean isInternedWith(Point that) { return _owner != null && _owner == that._owner; }
+
+	//
+	// The lattice cell of the point: each coordinate rounded to a multiple of EPSILON,
+	// packed into a long (the low 32 bits of each). Points equal within EPSILON lie in
+	// the same or adjacent cells; the cell is computed once, on construction.
+	//
+	private static final double CELLS_PER_UNIT = 1 / MathUtilities.EPSILON;
+
+	protected long _cell;
+	public long getCell() { return _cell; }
+
+	public static long cell(double x, double y)
+	{
+		return pack((int)Math.round(x * CELLS_PER_UNIT), (int)Math.round(y * CELLS_PER_UNIT));
+	}
+
+	/**
+	 * @param dx, dy -- offsets (in cells) in each coordinate
+	 * @return the lattice cell offset from the given cell
+	 */
+	public static long neighborCell(long cell, int dx, int dy)
+	{
+		return pack((int)(cell >>> 32) + dx, (int)cell + dy);
+	}
+
+	private static long pack(int cellX, int cellY) { return ((long)cellX << 32) | (cellY & 0xFFFFFFFFL); }
+
+	/**
+	 * @return a hash of the lattice cell (bits mixed for use in power-of-two tables)
+	 */
+	public static int hashCell(long cell) { return (int)((cell * 0x9E3779B97F4A7C15L) >>> 32); }
+
 	// BasicPoint objects are named points (from input)
 	// ImpliedPoint objects are unnamed points (from input)
 	public boolean isGenerated() { return false; }
@@ -53,6 +101,9 @@ public class Point implements Comparable<Point>
 		_name = (name == null || name == "") ? ANONYMOUS : name;
 		this._x = x;
 		this._y = y;
+		_id = NO_ID;
+		_owner = null;
+		_cell = cell(x, y);
 	}
 
 	/**
@@ -66,8 +117,7 @@ public class Point implements Comparable<Point>
 	@Override
 	public int hashCode()
 	{
-		return Double.valueOf(MathUtilities.removeLessEpsilon(_x)).hashCode() +
-				Double.valueOf(MathUtilities.removeLessEpsilon(_y)).hashCode();
+		return hashCell(_cell);
 	}
 
 	/**
@@ -111,6 +161,9 @@ public class Point implements Comparable<Point>
 	@Override
 	public boolean equals(Object obj)
 	{
+		// Interned points: the same database entry
+		if(this == obj)  return true;
+
 		if(obj == null)  return false; 
 
 		if(!(obj instanceof Point))  return false; 
@@ -118,6 +171,9 @@ public class Point implements Comparable<Point>
 
 		Point other = (Point) obj;
 
+		// Distinct entries of the same database are never equal
+		if(_owner != null && _owner == other._owner)  return false;
+
 		return	MathUtilities.doubleEquals(this.getX(), other.getX()) &&
 				MathUtilities.doubleEquals(this.getY(), other.getY());
 	}
@@ -1,6 +1,7 @@
 package geometry_objects.points;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -24,24 +25,84 @@ public class PointDatabase
 	//
 	protected PointNamingFactory _factory;
 
+	//
+	// The ids of the entries that are implicit points (intersections of segments)
+	// rather than points given by the user; entries are never removed.
+	//
+	protected BitSet _implicit;
+
 	public Set<Point> getPoints() { return _factory.getAllPoints(); }
 
 	public PointDatabase() {
 		_factory = new PointNamingFactory();
+		_implicit = new BitSet();
 	}
 
 	public PointDatabase(List<Point> points) {
 		_factory = new PointNamingFactory(points);
+		_implicit = new BitSet();
 	}
 
 	public int size() { return _factory.size(); }
 
 	/**
 	 * Add a point to the database.
+	 * 
+	 * @return the database entry for the point (an existing entry if the coordinates are already present)
+	 */
+	public Point put(String name, double x, double y)
+	{
+		Point entry = _factory.put(name, x, y);
+
+		// A given point at an implicit point makes the entry a given point
+		_implicit.clear(entry.getId());
+
+		return entry;
+	}
+
+	/**
+	 * Add an implicit point (the intersection of segments) to the database.
+	 * 
+	 * @return the database entry for the point (an existing entry, given or implicit,
+	 *         if the coordinates are already present)
+	 */
+	public Point putImplicit(String name, double x, double y)
+	{
+		Point entry = _factory.get(x, y);
+		if (entry != null) return entry;
+
+		entry = _factory.put(name, x, y);
+		_implicit.set(entry.getId());
+
+		return entry;
+	}
+
+	/**
+	 * @param point -- a point
+	 * @return true if the database entry for the point is an implicit point
 	 */
-	public void put(String name, double x, double y)
+	public boolean isImplicit(Point point)
 	{
-		_factory.put(name, x, y);
+		Point entry = getPoint(point);
+
+		return entry != null && _implicit.get(entry.getId());
+	}
+
+	/**
+	 * Given a point, acquire the stored database object only if it is a given point.
+	 * 
+	 * @param pt -- a basic point
+	 * @return the database entry for the point; null if there is none or it is an implicit point
+	 */
+	public Point getExplicitPoint(Point point)
+	{
+		Point entry = getPoint(point);
+
+		return entry == null || _implicit.get(entry.getId()) ? null : entry;
+	}
+	public Point getExplicitPoint(double x, double y)
+	{
+		return getExplicitPoint(new Point(x, y));
 	}
 
 	/**
@@ -98,4 +159,20 @@ public class PointDatabase
 	{
 		return getPoint(new Point(x, y));
 	}
+
+	/**
+	 * Each point in the database has a dense id: 0, 1, ..., size() - 1 in order of insertion.
+	 * 
+	 * @param id -- the id of a point
+	 * @return the database entry with the id; null if there is no such entry
+	 */
+	public Point getPoint(int id)
+	{
+		return _factory.get(id);
+	}
+
+	/**
+	 * @return the points of the database in order of id
+	 */
+	public List<Point> getPointsById() { return _factory.getPointsById(); }
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package geometry_objects.points;
 
-import java.util.LinkedHashMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
+import utilities.math.MathUtilities;
+
 /*
  * Given a pair of coordinates; generate a unique name for it;
  * return that point object.
@@ -29,16 +34,32 @@ public class PointNamingFactory
 	private int _numLetters = 1;
 
 	//
-	// A hashed container for the database of points; this requires the Point
-	// class implement equals based solely on the individual coordinates and
-	// not a name. We need a get() method; HashSet doesn't offer one.
-	// Each entry is a <Key, Value> pair where Key == Value
+	// The database entries indexed by their (dense) ids; the database interns each
+	// point: exactly one Point object represents each coordinate pair
+	//
+	protected List<Point> _byId;
+
+	//
+	// The database is hashed by lattice cell (see Point.getCell): an open-addressed
+	// table maps each occupied cell to the id of an entry in the cell; the entries
+	// of a cell are chained through _nextInCell.
 	//
-	protected Map<Point, Point> _database;
+	// A point equal (within epsilon) to an entry lies in the entry's cell or one of
+	// the 8 neighboring cells; a lookup probes those cells (allocating nothing), so
+	// no two entries of the database are equal.
+	//
+	private static final int EMPTY = -1;
+	private static final int[] NEIGHBORS = { 0, 0,  -1, -1,  -1, 0,  -1, 1,  0, -1,  0, 1,  1, -1,  1, 0,  1, 1 };
+
+	protected long[] _cellKeys;
+	protected int[] _cellHeads;
+	protected int _cellsUsed;
+	protected int[] _nextInCell;
 
 	public PointNamingFactory()
 	{
-		_database = new LinkedHashMap<Point, Point>();
+		_byId = new ArrayList<Point>();
+		clearCells();
 	}
 
 	/**
@@ -48,7 +69,7 @@ public class PointNamingFactory
 	 */
 	public PointNamingFactory(List<Point> points)
 	{
-		_database = new LinkedHashMap<Point, Point>();
+		this();
 		
 		for(Point point : points)
 		{
@@ -69,16 +90,105 @@ public class PointNamingFactory
 	{
 		if(pt == null) return null;
 		
-		Point pointIn = _database.get(pt);
+		Point pointIn = get(pt);
 		
 		if (pointIn == null)
 		{
 			Point pointNew = new Point(pt.getName(), pt.getX(), pt.getY());
-			_database.put(pointNew, pointNew);
+			intern(pointNew);
 			return pointNew;
 		}
 
-		return pt;
+		return pointIn;
+	}
+
+	/*
+	 * Add a new entry to the database, assigning it the next id.
+	 */
+	private void intern(Point pt)
+	{
+		pt._id = _byId.size();
+		pt._owner = this;
+
+		_byId.add(pt);
+
+		if (_nextInCell.length == pt._id) _nextInCell = Arrays.copyOf(_nextInCell, 2 * _nextInCell.length);
+
+		// Chain the entry at the head of its cell
+		int slot = slotOf(pt.getCell());
+		if (_cellHeads[slot] == EMPTY)
+		{
+			_cellKeys[slot] = pt.getCell();
+			_nextInCell[pt._id] = EMPTY;
+			_cellHeads[slot] = pt._id;
+
+			if (2 * ++_cellsUsed > _cellKeys.length) growCells();
+		}
+		else
+		{
+			_nextInCell[pt._id] = _cellHeads[slot];
+			_cellHeads[slot] = pt._id;
+		}
+	}
+
+	/*
+	 * @return the entry equal to (x, y): in the cell of (x, y) or a neighboring cell; null if none
+	 */
+	private Point lookup(double x, double y, long cell)
+	{
+		for (int n = 0; n < NEIGHBORS.length; n += 2)
+		{
+			int slot = slotOf(Point.neighborCell(cell, NEIGHBORS[n], NEIGHBORS[n + 1]));
+
+			for (int id = _cellHeads[slot]; id != EMPTY; id = _nextInCell[id])
+			{
+				Point entry = _byId.get(id);
+				if (MathUtilities.doubleEquals(entry.getX(), x) && MathUtilities.doubleEquals(entry.getY(), y)) return entry;
+			}
+		}
+
+		return null;
+	}
+
+	/*
+	 * @return the slot of the table holding the cell or, if the cell is not occupied, the empty slot it would take
+	 */
+	private int slotOf(long cell)
+	{
+		int mask = _cellKeys.length - 1;
+		int slot = Point.hashCell(cell) & mask;
+
+		while (_cellHeads[slot] != EMPTY && _cellKeys[slot] != cell) slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+	private void growCells()
+	{
+		long[] keys = _cellKeys;
+		int[] heads = _cellHeads;
+
+		_cellKeys = new long[2 * keys.length];
+		_cellHeads = new int[2 * heads.length];
+		Arrays.fill(_cellHeads, EMPTY);
+
+		for (int slot = 0; slot < keys.length; slot++)
+		{
+			if (heads[slot] == EMPTY) continue;
+
+			int newSlot = slotOf(keys[slot]);
+			_cellKeys[newSlot] = keys[slot];
+			_cellHeads[newSlot] = heads[slot];
+		}
+	}
+
+	private void clearCells()
+	{
+		_cellKeys = new long[16];
+		_cellHeads = new int[16];
+		Arrays.fill(_cellHeads, EMPTY);
+		_cellsUsed = 0;
+		_nextInCell = new int[16];
 	}
 
 	/**
@@ -116,11 +226,8 @@ public class PointNamingFactory
 	 */
 	public Point put(String name, double x, double y)
 	{
-		//create new point
-		Point pt = new Point(name, x, y);
-		
 		//attempt to find the point in the database
-		Point pointIn = _database.get(pt);
+		Point pointIn = get(x, y);
 
 		//not found; put a new point in
 		if(pointIn == null) return put(new Point(name, x, y));
@@ -143,11 +250,13 @@ public class PointNamingFactory
 	 */
 	public Point get(double x, double y) // caden
 	{
-		return get(new Point(x, y));
+		return lookup(x, y, Point.cell(x, y));
 	}	
 	public Point get(Point pt) // caden
 	{
-		return _database.get(pt);
+		if (pt._owner == this) return pt;
+
+		return lookup(pt.getX(), pt.getY(), pt.getCell());
 	}
 
 	/**
@@ -155,8 +264,19 @@ public class PointNamingFactory
 	 * @param y -- single coordinate
 	 * @return simple containment; no updating
 	 */
-	public boolean contains(double x, double y) { return _database.containsKey(new Point(x, y));} // caden
-	public boolean contains(Point p) { return _database.containsKey(p); } // caden
+	public boolean contains(double x, double y) { return get(x, y) != null;} // caden
+	public boolean contains(Point p) { return get(p) != null; } // caden
+
+	/**
+	 * @param id -- the id of a database entry
+	 * @return the database entry with the id; null if there is no such entry
+	 */
+	public Point get(int id) { return id >= 0 && id < _byId.size() ? _byId.get(id) : null; }
+
+	/**
+	 * @return the database entries in order of id
+	 */
+	public List<Point> getPointsById() { return Collections.unmodifiableList(_byId); }
 
 	/**
 	 * Constructs the next (complete with prefix) generated name.
@@ -191,16 +311,38 @@ public class PointNamingFactory
 	}
 
 	/**
-	 * @return The entire database of points.
+	 * @return The entire database of points (a read-only view, in order of id).
 	 */
 	public Set<Point> getAllPoints()
 	{
+		return new AbstractSet<Point>()
+		{
+			@Override
+			public Iterator<Point> iterator() { return getPointsById().iterator(); }
+
+			@Override
+			public int size() { return _byId.size(); }
 
-		return _database.keySet();
+			@Override
+			public boolean contains(Object o) { return o instanceof Point && PointNamingFactory.this.contains((Point)o); }
+		};
 	}
 
-	public void clear() { _database.clear(); }
-	public int size() { return _database.size(); }
+	/**
+	 * Empty the database; the former entries are no longer interned (and their ids are void).
+	 */
+	public void clear()
+	{
+		for (Point pt : _byId)
+		{
+			pt._id = Point.NO_ID;
+			pt._owner = null;
+		}
+
+		_byId.clear();
+		clearCells();
+	}
+	public int size() { return _byId.size(); }
 
 	@Override
 	public String toString()
@@ -59,7 +59,7 @@ public class InputFacade
 		
 		for(SegmentNode segmentNode : fig.getSegments().asUniqueSegmentList())
 		{
-			segments.add(toSegment(segmentNode));
+			segments.add(toSegment(pointDatabase, segmentNode));
 		}
 		
 		return new AbstractMap.SimpleEntry<PointDatabase, Set<Segment>>(pointDatabase, segments);
@@ -91,10 +91,14 @@ public class InputFacade
 	    return new Point(x, y);
 	}
 	
-	private static Segment toSegment(SegmentNode input) 
+	/*
+	 * The endpoints of the segment are the entries of the point database (added if absent)
+	 * so that a single Point object represents each point of the figure.
+	 */
+	private static Segment toSegment(PointDatabase pointDatabase, SegmentNode input) 
 	{
-	    Point p1 = new Point(input.getPoint1().getName(), input.getPoint1().getX(), input.getPoint1().getY());
-	    Point p2 = new Point(input.getPoint2().getName(), input.getPoint2().getX(), input.getPoint2().getY());
+	    Point p1 = pointDatabase.put(input.getPoint1().getName(), input.getPoint1().getX(), input.getPoint1().getY());
+	    Point p2 = pointDatabase.put(input.getPoint2().getName(), input.getPoint2().getX(), input.getPoint2().getY());
 	    
 	    return new Segment(p1, p2);
 	}
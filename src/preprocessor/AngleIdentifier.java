@@ -1,14 +1,21 @@
 package preprocessor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import exceptions.FactException;
 import geometry_objects.Segment;
 import geometry_objects.angle.Angle;
 import geometry_objects.angle.AngleEquivalenceClasses;
-import utilities.math.MathUtilities;
+import geometry_objects.points.Point;
+import preprocessor.delegates.VertexSpliterator;
 
 public class AngleIdentifier
 {
@@ -34,19 +41,350 @@ public class AngleIdentifier
 		return _angles;
 	}
 
+	/*
+	 * Compute the figure angles in parallel; the result is the same as that of getAngles().
+	 *
+	 * Angles at different vertices are structurally incomparable: the classes at each
+	 * vertex are computed independently (on @pool), then appended in the order the
+	 * sequential computation would have created them.
+	 *
+	 * @param pool -- the pool on which the vertices are processed
+	 */
+	public AngleEquivalenceClasses getAngles(ForkJoinPool pool)
+	{
+		if (_angles != null) return _angles;
+
+		List<Segment> segments = new ArrayList<Segment>(_segments.keySet());
+		List<Map.Entry<Point, List<Integer>>> vertices = new ArrayList<Map.Entry<Point, List<Integer>>>(incidentSegments(segments).entrySet());
+
+		List<VertexAngles> parts = pool.invoke(new VertexTask(segments, vertices, 0, vertices.size()));
+
+		_angles = merge(parts);
+
+		return _angles;
+	}
+
+	/**
+	 * The angles of the figure, enumerated lazily (vertex by vertex) rather than collected
+	 * into equivalence classes; the stream splits by ranges of vertices and so may be made
+	 * parallel. Each pair of segments sharing a vertex yields at most one angle.
+	 *
+	 * @return a stream of the angles (each carrying the directions of its rays)
+	 */
+	public Stream<Angle> stream()
+	{
+		List<Segment> segments = new ArrayList<Segment>(_segments.keySet());
+		List<Map.Entry<Point, List<Integer>>> vertices = new ArrayList<Map.Entry<Point, List<Integer>>>(incidentSegments(segments).entrySet());
+
+		VertexSpliterator<Angle> angles = new VertexSpliterator<Angle>((v, action) ->
+			forEachAngleAt(segments, vertices.get(v).getKey(), vertices.get(v).getValue(), (pair, angle) -> action.accept(angle)),
+			0, vertices.size());
+
+		return StreamSupport.stream(angles, false);
+	}
+
+	/*
+	 * Only segments sharing an endpoint can form an angle; rather than attempting
+	 * every pair of segments, pair the segments incident to each vertex:
+	 * the sum of deg(v)^2 pairs over the vertices v.
+	 *
+	 * The pairs are visited in the order all (i, j) pairs of segments would be.
+	 * Each angle carries the directions of its rays (see rayDirections).
+	 */
 	private void computeAngles()
 	{
-		ArrayList<Segment> segments = new ArrayList<Segment>(_segments.keySet());
-		
-		for(int i=0; i<segments.size()-1; i++) {
-			for(int j=i+1; j<segments.size(); j++) {
-				try {
-					Angle angle = new Angle(segments.get(i), segments.get(j));
-					_angles.add(angle);
+		List<Segment> segments = new ArrayList<Segment>(_segments.keySet());
+		Map<Point, List<Integer>> incident = incidentSegments(segments);
+
+		// The direction of each segment as a ray from each of its endpoints: [2 * s] from point1, [2 * s + 1] from point2
+		int[] directions = new int[2 * segments.size()];
+		for (Map.Entry<Point, List<Integer>> atVertex : incident.entrySet())
+		{
+			int[] atVertexDirections = rayDirections(segments, atVertex.getKey(), atVertex.getValue());
+
+			for (int k = 0; k < atVertexDirections.length; k++)
+			{
+				int s = atVertex.getValue().get(k);
+				directions[2 * s + endpoint(segments.get(s), atVertex.getKey())] = atVertexDirections[k];
+			}
+		}
+
+		for (long pair : pairsSharingVertex(segments))
+		{
+			Segment ray1 = segments.get(first(pair));
+			Segment ray2 = segments.get(second(pair));
+
+			Point vertex = ray1.sharedVertex(ray2);
+			if (vertex == null) continue;
+
+			Angle angle = Angle.create(ray1, ray2, directions[2 * first(pair) + endpoint(ray1, vertex)],
+			                                       directions[2 * second(pair) + endpoint(ray2, vertex)]);
+
+			if (angle != null) _angles.add(angle);
+		}
+	}
+
+	/*
+	 * @return 0 if the vertex is the first point of the segment; 1 if it is the second
+	 */
+	private static int endpoint(Segment segment, Point vertex) { return segment.getPoint1().equals(vertex) ? 0 : 1; }
+
+	/*
+	 * The direction (see Angle) of each segment incident to a vertex as a ray from the vertex.
+	 *
+	 * Rays are ordered by the angle of their line in [0, 180); consecutive collinear rays lie
+	 * along the same line (the line at angle 0 is also that at the end of the order). Along
+	 * a line, rays pointing the same way as the first ray of the line are on side 0.
+	 *
+	 * @param atVertex -- the indices of the segments incident to @vertex
+	 * @return the direction of each segment of @atVertex
+	 */
+	protected static int[] rayDirections(List<Segment> segments, Point vertex, List<Integer> atVertex)
+	{
+		int n = atVertex.size();
+
+		Segment[] rays = new Segment[n];
+		double[] dx = new double[n];
+		double[] dy = new double[n];
+		double[] lineAngle = new double[n];
+		List<Integer> order = new ArrayList<Integer>(n);
+		for (int k = 0; k < n; k++)
+		{
+			rays[k] = segments.get(atVertex.get(k));
+
+			Point other = rays[k].other(vertex);
+			dx[k] = other.getX() - vertex.getX();
+			dy[k] = other.getY() - vertex.getY();
+
+			double theta = Math.atan2(dy[k], dx[k]);
+			lineAngle[k] = theta < 0 ? theta + Math.PI : theta;
+			if (lineAngle[k] >= Math.PI) lineAngle[k] -= Math.PI;
+
+			order.add(k);
+		}
+		order.sort((left, right) -> Double.compare(lineAngle[left], lineAngle[right]));
+
+		// Each ray lies along the line of the previous ray (in order) or begins a new line;
+		// first[k] is the first ray along the line of ray k
+		int[] line = new int[n];
+		int[] first = new int[n];
+		int lines = 0;
+		for (int position = 0; position < n; position++)
+		{
+			int k = order.get(position);
+			int previousFirst = position == 0 ? -1 : first[order.get(position - 1)];
+
+			if (previousFirst == -1 || !rays[k].isCollinearWith(rays[previousFirst]))
+			{
+				lines++;
+				first[k] = k;
+			}
+			else first[k] = previousFirst;
+
+			line[k] = lines - 1;
+		}
+
+		// The last line may be the first: near-horizontal rays at both ends of the order
+		int head = order.get(0);
+		int last = first[order.get(n - 1)];
+		if (lines > 1 && rays[last].isCollinearWith(rays[head]))
+		{
+			for (int k = 0; k < n; k++)
+			{
+				if (line[k] == lines - 1)
+				{
+					line[k] = 0;
+					first[k] = head;
 				}
-				catch (FactException e) {}	
 			}
 		}
+
+		int[] directions = new int[n];
+		for (int k = 0; k < n; k++)
+		{
+			int side = dx[k] * dx[first[k]] + dy[k] * dy[first[k]] > 0 ? 0 : 1;
+
+			directions[k] = 2 * line[k] + side;
+		}
+
+		return directions;
 	}
-}
 
+	/*
+	 * @param segments -- a list of segments
+	 * @return each vertex (endpoint) mapped to the indices (ascending) of the segments incident to it
+	 */
+	protected static Map<Point, List<Integer>> incidentSegments(List<Segment> segments)
+	{
+		Map<Point, List<Integer>> incident = new LinkedHashMap<Point, List<Integer>>();
+
+		for (int s = 0; s < segments.size(); s++)
+		{
+			incident.computeIfAbsent(segments.get(s).getPoint1(), (vertex) -> new ArrayList<Integer>()).add(s);
+			incident.computeIfAbsent(segments.get(s).getPoint2(), (vertex) -> new ArrayList<Integer>()).add(s);
+		}
+
+		return incident;
+	}
+
+	/*
+	 * @param segments -- a list of segments
+	 * @return the distinct (i, j), i < j, pairs of segments sharing an endpoint, packed and sorted
+	 */
+	protected static long[] pairsSharingVertex(List<Segment> segments)
+	{
+		Map<Point, List<Integer>> incident = incidentSegments(segments);
+
+		long count = 0;
+		for (List<Integer> atVertex : incident.values()) count += (long)atVertex.size() * (atVertex.size() - 1) / 2;
+
+		long[] pairs = new long[Math.toIntExact(count)];
+		int n = 0;
+		for (List<Integer> atVertex : incident.values())
+		{
+			for (int a = 0; a < atVertex.size() - 1; a++)
+			{
+				for (int b = a + 1; b < atVertex.size(); b++)
+				{
+					pairs[n++] = pack(atVertex.get(a), atVertex.get(b));
+				}
+			}
+		}
+
+		// Sort; a pair of segments could only share two vertices if the segments were equal
+		Arrays.sort(pairs);
+
+		int distinct = 0;
+		for (int k = 0; k < pairs.length; k++)
+		{
+			if (k == 0 || pairs[k] != pairs[k - 1]) pairs[distinct++] = pairs[k];
+		}
+
+		return distinct == pairs.length ? pairs : Arrays.copyOf(pairs, distinct);
+	}
+
+	/*
+	 * The angle classes at a single vertex along with, for each class, the (i, j) pair
+	 * of segments that created it.
+	 */
+	private static class VertexAngles
+	{
+		private final AngleEquivalenceClasses _classes = new AngleEquivalenceClasses();
+		private final List<Long> _firstPairs = new ArrayList<Long>();
+	}
+
+	/*
+	 * The angles at one vertex: the pairs of incident segments in (i, j) order, as in computeAngles().
+	 */
+	private static VertexAngles computeVertexAngles(List<Segment> segments, Point vertex, List<Integer> atVertex)
+	{
+		VertexAngles vertexAngles = new VertexAngles();
+
+		forEachAngleAt(segments, vertex, atVertex, (pair, angle) -> {
+			int classes = vertexAngles._classes.numClasses();
+			vertexAngles._classes.add(angle);
+
+			if (vertexAngles._classes.numClasses() > classes) vertexAngles._firstPairs.add(pair);
+		});
+
+		return vertexAngles;
+	}
+
+	/*
+	 * Visit the angles at one vertex, each with its (i, j) pair of segments (packed), in (i, j) order.
+	 */
+	private static void forEachAngleAt(List<Segment> segments, Point vertex, List<Integer> atVertex, BiConsumer<Long, Angle> visitor)
+	{
+		int[] directions = rayDirections(segments, vertex, atVertex);
+
+		for (int a = 0; a < atVertex.size() - 1; a++)
+		{
+			for (int b = a + 1; b < atVertex.size(); b++)
+			{
+				Angle angle = Angle.create(segments.get(atVertex.get(a)), segments.get(atVertex.get(b)), directions[a], directions[b]);
+				if (angle != null) visitor.accept(pack(atVertex.get(a), atVertex.get(b)), angle);
+			}
+		}
+	}
+
+	/*
+	 * Sequentially, classes are created in the order of the pairs creating them.
+	 */
+	private static AngleEquivalenceClasses merge(List<VertexAngles> parts)
+	{
+		List<long[]> order = new ArrayList<long[]>();
+		for (int part = 0; part < parts.size(); part++)
+		{
+			List<Long> firstPairs = parts.get(part)._firstPairs;
+			for (int index = 0; index < firstPairs.size(); index++) order.add(new long[] { firstPairs.get(index), part, index });
+		}
+
+		order.sort((left, right) -> Long.compare(left[0], right[0]));
+
+		AngleEquivalenceClasses merged = new AngleEquivalenceClasses();
+		for (long[] entry : order) merged.appendClass(parts.get((int)entry[1])._classes, (int)entry[2]);
+
+		return merged;
+	}
+
+	/*
+	 * The angles at the vertices [_lo, _hi).
+	 */
+	private static class VertexTask extends RecursiveTask<List<VertexAngles>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		// A range of vertices with fewer pairs of incident segments than this is processed sequentially
+		private static final long PAIRS_PER_TASK = 1024;
+
+		private final List<Segment> _segments;
+		private final List<Map.Entry<Point, List<Integer>>> _vertices;
+		private final int _lo;
+		private final int _hi;
+
+		private VertexTask(List<Segment> segments, List<Map.Entry<Point, List<Integer>>> vertices, int lo, int hi)
+		{
+			_segments = segments;
+			_vertices = vertices;
+			_lo = lo;
+			_hi = hi;
+		}
+
+		@Override
+		protected List<VertexAngles> compute()
+		{
+			if (_hi - _lo <= 1 || numPairs() <= PAIRS_PER_TASK)
+			{
+				List<VertexAngles> parts = new ArrayList<VertexAngles>();
+				for (int v = _lo; v < _hi; v++) parts.add(computeVertexAngles(_segments, _vertices.get(v).getKey(), _vertices.get(v).getValue()));
+				return parts;
+			}
+
+			int mid = (_lo + _hi) >>> 1;
+
+			VertexTask left = new VertexTask(_segments, _vertices, _lo, mid);
+			VertexTask right = new VertexTask(_segments, _vertices, mid, _hi);
+
+			right.fork();
+			List<VertexAngles> parts = left.compute();
+			parts.addAll(right.join());
+
+			return parts;
+		}
+
+		private long numPairs()
+		{
+			long pairs = 0;
+			for (int v = _lo; v < _hi; v++)
+			{
+				long degree = _vertices.get(v).getValue().size();
+				pairs += degree * (degree - 1) / 2;
+			}
+			return pairs;
+		}
+	}
+
+	private static long pack(int i, int j) { return ((long)i << 32) | j; }
+	private static int first(long pair) { return (int)(pair >>> 32); }
+	private static int second(long pair) { return (int)pair; }
+}
@@ -0,0 +1,50 @@
+package preprocessor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+/**
+ * The change to a preprocessed figure resulting from an incremental edit
+ * (adding or removing a given segment).
+ *
+ * Downstream consumers (angle / triangle identification) can update using only
+ * the segments that entered and left the segment database.
+ */
+public class FigureDelta
+{
+	protected Set<Segment> _addedSegments;
+	protected Set<Segment> _removedSegments;
+
+	protected Set<Point> _addedImplicitPoints;
+	protected Set<Point> _removedImplicitPoints;
+
+	public Set<Segment> getAddedSegments() { return _addedSegments; }
+	public Set<Segment> getRemovedSegments() { return _removedSegments; }
+	public Set<Point> getAddedImplicitPoints() { return _addedImplicitPoints; }
+	public Set<Point> getRemovedImplicitPoints() { return _removedImplicitPoints; }
+
+	public FigureDelta()
+	{
+		_addedSegments = new LinkedHashSet<Segment>();
+		_removedSegments = new LinkedHashSet<Segment>();
+		_addedImplicitPoints = new LinkedHashSet<Point>();
+		_removedImplicitPoints = new LinkedHashSet<Point>();
+	}
+
+	/**
+	 * @return true if the edit did not change the segment database
+	 */
+	public boolean isEmpty()
+	{
+		return _addedSegments.isEmpty() && _removedSegments.isEmpty();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FigureDelta(+" + _addedSegments + " -" + _removedSegments + ")";
+	}
+}
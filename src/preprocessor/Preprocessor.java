@@ -1,18 +1,27 @@
 package preprocessor;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 
 import geometry_objects.points.Point;
 import geometry_objects.points.PointDatabase;
+import geometry_objects.points.PointNamingFactory;
+import preprocessor.PreprocessorStats.Stage;
+import preprocessor.delegates.CollinearLineBuckets;
 import preprocessor.delegates.ImplicitPointPreprocessor;
+import preprocessor.delegates.SegmentIncidence;
+import preprocessor.delegates.SegmentStore;
 import utilities.math.MathUtilities;
 import geometry_objects.Segment;
 
@@ -26,64 +35,436 @@ public class Preprocessor
 	// Minimal ('Base') segments provided by the user
 	protected Set<Segment> _givenSegments;
 
+	//
+	// Each stage of the analysis is computed on first use (along with the stages
+	// it depends on) and memoized; a null field is a stage not yet computed.
+	//
+	//    implicit points -> implicit segments -> minimal segments -> non-minimal groups -> database
+	//
+
 	// The set of implicitly defined points caused by segments
 	// at implicit points.
 	protected Set<Point> _implicitPoints;
+	public Set<Point> getImplicitPoints() { if (_implicitPoints == null) computeImplicitPoints(); return _implicitPoints; }
+
+	// The implicit points on each given segment; needed only until the minimal segments are computed
+	protected SegmentIncidence _incidence;
 
 	// The set of implicitly defined segments resulting from implicit points.
 	protected Set<Segment> _implicitSegments;
+	public Set<Segment> getImplicitSegments() { if (_implicitSegments == null) computeImplicitSegments(); return _implicitSegments; }
 
 	// Given all explicit and implicit points, we have a set of
 	// segments that contain no other subsegments; these are minimal ('base') segments
 	// That is, minimal segments uniquely define the figure.
 	protected Set<Segment> _allMinimalSegments;
+	public Set<Segment> getMinimalSegments() { if (_allMinimalSegments == null) computeMinimalSegments(); return _allMinimalSegments; }
+
+	// The contiguous groups of minimal segments along each line; needed only until the database is constructed
+	protected List<ArrayList<Segment>> _lineGroups;
 
 	// A collection of non-basic segments
 	protected Set<Segment> _nonMinimalSegments;
+	protected long _nonMinimalCount; // The size of _nonMinimalSegments; -1 if not known
+	public Set<Segment> getNonMinimalSegments() { if (_nonMinimalSegments == null) computeSegmentDatabase(); return _nonMinimalSegments; }
 
 	// A collection of all possible segments: maximal, minimal, and everything in between
-	// For lookup capability, we use a map; each <key, value> has the same segment object
-	// That is, key == value. 
+	// For lookup capability, we use a map; each <key, value> has the same segment
+	// That is, key == value. Contiguous runs along a line are stored compactly (see SegmentStore).
 	protected Map<Segment, Segment> _segmentDatabase;
-	public Map<Segment, Segment> getAllSegments() { return _segmentDatabase; }
+	public Map<Segment, Segment> getAllSegments() { if (_segmentDatabase == null) computeSegmentDatabase(); return _segmentDatabase; }
+
+	// Generates names for implicit points introduced by incremental edits
+	protected PointNamingFactory _namer;
 
+	// Measurements of each stage computed (since the most recent analysis)
+	protected PreprocessorStats _stats;
+	public PreprocessorStats getStats() { return _stats; }
+
+	/**
+	 * No analysis is performed on construction; each stage is computed when first requested.
+	 */
 	public Preprocessor(PointDatabase points, Set<Segment> segments)
 	{
 		_pointDatabase  = points;
 		_givenSegments = segments;
-		
-		_segmentDatabase = new HashMap<Segment, Segment>();
-		
-		_implicitPoints = new LinkedHashSet<Point>();
-		_implicitSegments = new LinkedHashSet<Segment>();
-		_allMinimalSegments = new LinkedHashSet<Segment>();
-		_nonMinimalSegments = new LinkedHashSet<Segment>();
-		
-		analyze();
+
+		_stats = new PreprocessorStats();
 	}
 
 	/**
-	 * Invoke the precomputation procedure.
+	 * Invoke the (entire) precomputation procedure, discarding any stages already computed.
 	 */
 	public void analyze()
 	{
-		// Implicit Points
-		_implicitPoints = ImplicitPointPreprocessor.compute(_pointDatabase, _givenSegments.stream().toList());
+		_implicitPoints = null;
+		_incidence = null;
+		_implicitSegments = null;
+		_allMinimalSegments = null;
+		_lineGroups = null;
+		_nonMinimalSegments = null;
+		_segmentDatabase = null;
+
+		_stats = new PreprocessorStats();
+
+		computeSegmentDatabase();
+	}
+
+	/*
+	 * Implicit Points (and the implicit points on each given segment)
+	 */
+	private void computeImplicitPoints()
+	{
+		PreprocessorStats.Measurement stage = _stats.begin(Stage.IMPLICIT_POINTS);
+		_incidence = ImplicitPointPreprocessor.computeIncidence(_pointDatabase, _givenSegments.stream().toList());
+		_implicitPoints = _incidence.getImplicitPoints();
+		stage.end(_implicitPoints.size());
+	}
+
+	/*
+	 * Implicit Segments attributed to implicit points
+	 */
+	private void computeImplicitSegments()
+	{
+		if (_incidence == null) computeImplicitPoints();
+
+		PreprocessorStats.Measurement stage = _stats.begin(Stage.IMPLICIT_SEGMENTS);
+		_implicitSegments = computeImplicitBaseSegments(_incidence);
+		stage.end(_implicitSegments.size());
+	}
+
+	/*
+	 * Combine the given minimal segments and implicit segments into a true set of minimal segments
+	 *     *givenSegments may not be minimal
+	 *     * implicitSegmen
+	 */
+	private void computeMinimalSegments()
+	{
+		if (_implicitSegments == null) computeImplicitSegments();
+
+		PreprocessorStats.Measurement stage = _stats.begin(Stage.MINIMAL_SEGMENTS);
+		_allMinimalSegments = identifyAllMinimalSegments(_incidence, _givenSegments, _implicitSegments);
+		stage.end(_allMinimalSegments.size());
+
+		_incidence = null;
+	}
+
+	/*
+	 * Construct all segments inductively from the base segments:
+	 * contiguous groups of minimal segments along each line
+	 */
+	private void computeNonMinimalGroups()
+	{
+		getMinimalSegments();
+
+		PreprocessorStats.Measurement stage = _stats.begin(Stage.NON_MINIMAL_SEGMENTS);
+		_lineGroups = groupAlongLines(_allMinimalSegments);
+		stage.end(_lineGroups.stream().mapToLong((group) -> (long)group.size() * (group.size() - 1) / 2).sum());
+	}
+
+	/*
+	 * Combine minimal and non-minimal into one package: our database
+	 */
+	private void computeSegmentDatabase()
+	{
+		if (_lineGroups == null) computeNonMinimalGroups();
+
+		PreprocessorStats.Measurement stage = _stats.begin(Stage.SEGMENT_DATABASE);
+		SegmentStore database = constructSegmentDatabase(_lineGroups);
+		_segmentDatabase = database;
+		stage.end(database.longSize());
+
+		_lineGroups = null;
+
+		// The non-minimal segments are those segments of the database that are not minimal
+		_nonMinimalSegments = nonMinimalSegmentsView();
+		_nonMinimalCount = database.longSize() - _allMinimalSegments.stream().filter(database::containsKey).count();
+	}
+
+	/*
+	 * @return a view of the segments in the database that are not minimal; the size is
+	 *         counted once (and again only after an incremental edit)
+	 */
+	private Set<Segment> nonMinimalSegmentsView()
+	{
+		return new AbstractSet<Segment>()
+		{
+			@Override
+			public Iterator<Segment> iterator()
+			{
+				return _segmentDatabase.keySet().stream().filter((segment) -> !_allMinimalSegments.contains(segment)).iterator();
+			}
+
+			@Override
+			public int size()
+			{
+				if (_nonMinimalCount < 0)
+				{
+					_nonMinimalCount = _segmentDatabase.keySet().stream().filter((segment) -> !_allMinimalSegments.contains(segment)).count();
+				}
+				return (int)Math.min(_nonMinimalCount, Integer.MAX_VALUE);
+			}
+
+			@Override
+			public boolean contains(Object o)
+			{
+				return _segmentDatabase.containsKey(o) && !_allMinimalSegments.contains(o);
+			}
+		};
+	}
+
+	/*
+	 * @return the point database entry for an implicit point (added, with the next
+	 *         generated name, if absent; an entry removed from the figure is reused)
+	 */
+	private Point implicitPoint(Point point)
+	{
+		Point entry = _pointDatabase.getPoint(point);
+
+		return entry != null ? entry : _pointDatabase.putImplicit(nextGeneratedName(), point.getX(), point.getY());
+	}
+
+	/*
+	 * @return the point database entry for the point (added if absent)
+	 */
+	private Point explicitPoint(Point point)
+	{
+		Point entry = _pointDatabase.getPoint(point);
+
+		return entry != null ? entry : _pointDatabase.put(point.getName(), point.getX(), point.getY());
+	}
+
+	/**
+	 * Incrementally add a given segment to the figure (without re-analyzing the figure):
+	 *    (1) intersect the new segment with the existing given segments only
+	 *    (2) recompute the minimal / non-minimal segments of only the affected lines:
+	 *        the new segment's line and the lines of the segments it crosses
+	 *
+	 * Implicit points introduced by the segment are given the next unused generated names.
+	 *
+	 * @param segment -- a segment to add to the given segments
+	 * @return the segments (and implicit points) added to / removed from the figure
+	 */
+	public FigureDelta addSegment(Segment segment)
+	{
+		FigureDelta delta = new FigureDelta();
+
+		if (segment == null || _givenSegments.contains(segment)) return delta;
+
+		// Edits apply to a fully analyzed figure
+		getAllSegments();
+
+		// The endpoints of a given segment are explicit points (the entries of the point database)
+		Point point1 = explicitPoint(segment.getPoint1());
+		Point point2 = explicitPoint(segment.getPoint2());
+		if (point1 != segment.getPoint1() || point2 != segment.getPoint2()) segment = new Segment(point1, point2);
+
+		// Intersect the new segment with the rest
+		List<Segment> affected = new ArrayList<Segment>();
+		affected.add(segment);
+		for (Segment given : _givenSegments)
+		{
+			Point intersect = segment.segmentIntersection(given);
+			if (intersect == null || _pointDatabase.getExplicitPoint(intersect) != null) continue;
+
+			affected.add(given);
+
+			if (!_implicitPoints.contains(intersect) && !delta.getAddedImplicitPoints().contains(intersect))
+			{
+				delta.getAddedImplicitPoints().add(implicitPoint(intersect));
+			}
+		}
+
+		List<Segment> lines = distinctLines(affected);
+		List<LineSegments> before = computeLines(lines);
+
+		_givenSegments.add(segment);
+		_implicitPoints.addAll(delta.getAddedImplicitPoints());
+
+		applyLineChanges(before, computeLines(lines), delta);
+
+		return delta;
+	}
+
+	/**
+	 * Incrementally remove a given segment from the figure (without re-analyzing the figure):
+	 *    (1) implicit points on the segment remain only if other given segments still intersect there
+	 *    (2) recompute the minimal / non-minimal segments of only the affected lines:
+	 *        the removed segment's line and the lines of the segments it crossed
+	 *
+	 * @param segment -- a given segment
+	 * @return the segments (and implicit points) added to / removed from the figure;
+	 *         empty if the segment is not a given segment
+	 */
+	public FigureDelta removeSegment(Segment segment)
+	{
+		FigureDelta delta = new FigureDelta();
+
+		if (segment == null || !_givenSegments.contains(segment)) return delta;
+
+		// Edits apply to a fully analyzed figure
+		getAllSegments();
+
+		// Implicit points on the segment that no longer result from an intersection
+		List<Segment> affected = new ArrayList<Segment>();
+		affected.add(segment);
+		for (Point point : _implicitPoints)
+		{
+			if (!segment.pointLiesBetweenEndpoints(point)) continue;
+
+			List<Segment> through = new ArrayList<Segment>();
+			for (Segment given : _givenSegments)
+			{
+				if (!given.equals(segment) && given.pointLiesBetweenEndpoints(point)) through.add(given);
+			}
+
+			if (!intersectAt(through, point))
+			{
+				delta.getRemovedImplicitPoints().add(point);
+				affected.addAll(through);
+			}
+		}
+
+		List<Segment> lines = distinctLines(affected);
+		List<LineSegments> before = computeLines(lines);
+
+		_givenSegments.remove(segment);
+		_implicitPoints.removeAll(delta.getRemovedImplicitPoints());
+
+		applyLineChanges(before, computeLines(lines), delta);
+
+		return delta;
+	}
+
+	/*
+	 * @return true if some pair of the segments intersect at @point
+	 */
+	private boolean intersectAt(List<Segment> segments, Point point)
+	{
+		for (int i = 0; i < segments.size() - 1; i++) {
+			for (int j = i + 1; j < segments.size(); j++) {
+				if (point.equals(segments.get(i).segmentIntersection(segments.get(j)))) return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * @return the next generated name not used by a point of the database
+	 */
+	private String nextGeneratedName()
+	{
+		if (_namer == null) _namer = new PointNamingFactory();
+
+		Set<String> used = new HashSet<String>();
+		_pointDatabase.getPoints().forEach((point) -> used.add(point.getName()));
+
+		String name = _namer.getCurrentName();
+		while (used.contains(name)) name = _namer.getCurrentName();
+
+		return name;
+	}
+
+	/**
+	 * The implicit, minimal and non-minimal segments lying on a single line.
+	 */
+	private static class LineSegments
+	{
+		private Set<Segment> _implicit = new LinkedHashSet<Segment>();
+		private Set<Segment> _minimal = new LinkedHashSet<Segment>();
+		private Set<Segment> _nonMinimal = new LinkedHashSet<Segment>();
 
-		// Implicit Segments attributed to implicit points
-		_implicitSegments = computeImplicitBaseSegments(_implicitPoints);
+		private Set<Segment> all()
+		{
+			Set<Segment> all = new LinkedHashSet<Segment>(_minimal);
+			all.addAll(_nonMinimal);
+			return all;
+		}
+	}
+
+	/*
+	 * @return one representative segment per line (infinite) among the given segments
+	 */
+	private List<Segment> distinctLines(List<Segment> segments)
+	{
+		List<Segment> lines = new ArrayList<Segment>();
+		for (Segment segment : segments)
+		{
+			if (lines.stream().noneMatch((line) -> onSameLine(line, segment))) lines.add(segment);
+		}
+		return lines;
+	}
+
+	/*
+	 * @return true if the two segments lie on the same line (infinite)
+	 */
+	private static boolean onSameLine(Segment thisS, Segment that)
+	{
+		if (!thisS.isCollinearWith(that)) return false;
+
+		Point p = thisS.getPoint1();
+		Point q = p.equals(that.getPoint1()) ? that.getPoint2() : that.getPoint1();
+
+		return thisS.isCollinearWith(new Segment(p, q));
+	}
+
+	/*
+	 * Compute the segments of each line from the current given segments and implicit points;
+	 * this is the same computation as analyze() restricted to a single line.
+	 */
+	private List<LineSegments> computeLines(List<Segment> lines)
+	{
+		List<LineSegments> computed = new ArrayList<LineSegments>();
+
+		for (Segment line : lines)
+		{
+			LineSegments segments = new LineSegments();
+			for (Segment given : _givenSegments)
+			{
+				if (!onSameLine(line, given)) continue;
+
+				Set<Segment> breaks = computeImplicitSegmentBreaksIfExists(given, _implicitPoints);
+				if (breaks.isEmpty()) segments._minimal.add(given);
+				segments._implicit.addAll(breaks);
+			}
+			segments._minimal.addAll(segments._implicit);
+			segments._nonMinimal = constructAllNonMinimalSegments(segments._minimal);
+
+			computed.add(segments);
+		}
+
+		return computed;
+	}
+
+	/*
+	 * Replace the segments of each line (before) with the recomputed segments (after)
+	 * and record the differences in the delta.
+	 */
+	private void applyLineChanges(List<LineSegments> before, List<LineSegments> after, FigureDelta delta)
+	{
+		for (int i = 0; i < before.size(); i++)
+		{
+			LineSegments old = before.get(i);
+			LineSegments current = after.get(i);
+
+			_implicitSegments.removeAll(old._implicit);
+			_implicitSegments.addAll(current._implicit);
+			_allMinimalSegments.removeAll(old._minimal);
+			_allMinimalSegments.addAll(current._minimal);
+
+			Set<Segment> removed = old.all();
+			removed.removeAll(current.all());
+			Set<Segment> added = current.all();
+			added.removeAll(old.all());
 
-		// Combine the given minimal segments and implicit segments into a true set of minimal segments
-		//     *givenSegments may not be minimal
-		//     * implicitSegmen
-		_allMinimalSegments = identifyAllMinimalSegments(_implicitPoints, _givenSegments, _implicitSegments);
+			removed.forEach((segment) -> _segmentDatabase.remove(segment));
+			added.forEach((segment) -> _segmentDatabase.put(segment, segment));
 
-		// Construct all segments inductively from the base segments
-		_nonMinimalSegments = constructAllNonMinimalSegments(_allMinimalSegments);
+			delta.getRemovedSegments().addAll(removed);
+			delta.getAddedSegments().addAll(added);
+		}
 
-		// Combine minimal and non-minimal into one package: our database
-		_allMinimalSegments.forEach((segment) -> _segmentDatabase.put(segment, segment));
-		_nonMinimalSegments.forEach((segment) -> _segmentDatabase.put(segment, segment));
+		_nonMinimalCount = -1;
 	}
 
 	/**
@@ -108,7 +489,7 @@ public class Preprocessor
 	 * @param midPoints
 	 * @return set of broken down segments
 	 */
-	private Set<Segment> breakSegmentOnPoints(Segment segment, Set<Point> midPoints) {
+	private Set<Segment> breakSegmentOnPoints(Segment segment, Collection<Point> midPoints) {
 		Set<Segment> implicitSegments = new LinkedHashSet<Segment>();
 		List<Point> points = new ArrayList<Point>(midPoints);
 		
@@ -117,6 +498,9 @@ public class Preprocessor
 		points.sort(Comparator.naturalOrder());
 		
 		for(int i=0; i<points.size()-1; i++) {
+			// coinciding points (discovered by different pairs of segments) do not define a segment
+			if(points.get(i).equals(points.get(i+1))) continue;
+
 			implicitSegments.add(new Segment(points.get(i), points.get(i+1)));
 		}
 		return implicitSegments;
@@ -150,6 +534,22 @@ public class Preprocessor
 		return implicitSegments;
 	}
 
+	/**
+	 * computes the set of all implicit segments from the implicit points on each given segment
+	 * @param incidence
+	 * @return the set of implicit segments
+	 */
+	public Set<Segment> computeImplicitBaseSegments(SegmentIncidence incidence) {
+		Set<Segment> implicitSegments = new LinkedHashSet<Segment>();
+		for(Segment segment: _givenSegments) {
+			List<Point> midPoints = incidence.getPoints(segment);
+			if(!midPoints.isEmpty()) {
+				implicitSegments.addAll(breakSegmentOnPoints(segment, midPoints));
+			}
+		}
+		return implicitSegments;
+	}
+
 	/**
 	 * determines whether is segment has a point that lies between its end points
 	 * @param segment
@@ -182,6 +582,24 @@ public class Preprocessor
 		allMinimalSegments.addAll(implicitSegments);
 		return allMinimalSegments;
 	}
+
+	/**
+	 * finds the set of all minimal segments; a given segment is minimal if no implicit point lies on it
+	 * @param incidence
+	 * @param givenSegments
+	 * @param implicitSegments
+	 * @return the set of all minimal segments
+	 */
+	public Set<Segment> identifyAllMinimalSegments(SegmentIncidence incidence, Set<Segment> givenSegments, Set<Segment> implicitSegments) {
+		Set<Segment> allMinimalSegments = new LinkedHashSet<Segment>();
+		for (Segment segment : givenSegments) {
+			if (incidence.getPoints(segment).isEmpty()) {
+				allMinimalSegments.add(segment);
+			}
+		}
+		allMinimalSegments.addAll(implicitSegments);
+		return allMinimalSegments;
+	}
 	
 	/**
 	 * gets the midpoint for a segment
@@ -195,78 +613,90 @@ public class Preprocessor
 		double avrY = (point1.getY() + point2.getY()) / 2;
 		return new Point(avrX, avrY);
 	}
-	
+
 	/**
-	 * gets the midpoints for a of the segments associated with the segment
-	 * @param allMinimalSegments
-	 * @return a mapping from midpoint to segment
+	 * Sorts the segments of a single line along the line; on a line, the
+	 * (lexicographic) order of the midpoints is the order along the line
+	 * @param line
+	 * @return list of sorted segments
 	 */
-	private Map<Point, Segment> getMidPointsAssociatedWithSegments(Set<Segment> allMinimalSegments) {
-		Map<Point, Segment> SegmentMidPoints = new HashMap<Point, Segment>();
-		for(Segment segment: allMinimalSegments) {
-			SegmentMidPoints.put(getMidpoint(segment), segment);
-		}
-		return SegmentMidPoints;
+	private List<Segment> sortAlongLine(List<Segment> line) {
+		List<Segment> sortedSegments = new ArrayList<Segment>(line);
+		sortedSegments.sort(Comparator.comparing(this::getMidpoint));
+		return sortedSegments;
 	}
-	
+
 	/**
-	 * Sorts the segments based on their midpoints
-	 * @param allMinimalSegments
-	 * @return list of sorted segments
+	 * groups the segments of a single line (sorted along the line) into contiguous runs;
+	 * segments sharing a vertex belong to the same group: a segment touching two groups
+	 * joins them (union-find over the groups, each labeled by its first segment).
+	 * Vertices are located by their position along the line.
+	 * @param sortedSegments
+	 * @return grouped segments, in order of their first segment
 	 */
-	private List<Segment> sortSegments(Set<Segment> allMinimalSegments) {
-		List<Segment> sortedSegment = new ArrayList<Segment>();
-		Map<Point, Segment> SegmentMidPoints = getMidPointsAssociatedWithSegments(allMinimalSegments);
-		List<Point> midPoints = new ArrayList<Point>(SegmentMidPoints.keySet());
-		
-		midPoints.sort(Comparator.naturalOrder());
-		
-		for(Point midPoint: midPoints) {
-			sortedSegment.add(SegmentMidPoints.get(midPoint));
+	private ArrayList<ArrayList<Segment>> contructGroupedSegments(List<Segment> sortedSegments) {
+		ArrayList<ArrayList<Segment>> groupedSegments = new ArrayList<ArrayList<Segment>>();
+		if(sortedSegments.isEmpty()) return groupedSegments;
+
+		Segment line = sortedSegments.get(0);
+		TreeMap<Double, Integer> groupOfVertex = new TreeMap<Double, Integer>();
+		int[] parent = new int[sortedSegments.size()];
+		for(int s = 0; s < sortedSegments.size(); s++) {
+			parent[s] = s;
+			joinGroupsAt(positionAlong(line, sortedSegments.get(s).getPoint1()), s, groupOfVertex, parent);
+			joinGroupsAt(positionAlong(line, sortedSegments.get(s).getPoint2()), s, groupOfVertex, parent);
+		}
+
+		Map<Integer, ArrayList<Segment>> groups = new LinkedHashMap<Integer, ArrayList<Segment>>();
+		for(int s = 0; s < sortedSegments.size(); s++) {
+			groups.computeIfAbsent(findGroup(s, parent), (root) -> new ArrayList<Segment>()).add(sortedSegments.get(s));
 		}
-		return sortedSegment;
+		groupedSegments.addAll(groups.values());
+		return groupedSegments;
 	}
 
 	/**
-	 * gets the segment group that the segment belongs in.
-	 * A segment belongs in a group if it has the same slope as the rest of the group
-	 * and shares a vertex with at least one group member.
-	 * @param segment
-	 * @param groupedSegments
-	 * @return the proper group or -1
-	 */
-	private int getBelongingGroup(Segment segment, ArrayList<ArrayList<Segment>> groupedSegments) {
-		for(int i=0; i<groupedSegments.size(); i++) {
-			ArrayList<Segment> group = groupedSegments.get(i);
-			if(MathUtilities.doubleEquals(group.get(0).slope(), segment.slope())) {
-				for(Segment other: group) {
-					if(segment.sharedVertex(other) != null)
-						return i;
-				}
-			}
+	 * @param line
+	 * @param point -- a point on the line
+	 * @return the position of the point along the line
+	 */
+	private double positionAlong(Segment line, Point point) {
+		return line.directionX() * point.getX() + line.directionY() * point.getY();
+	}
+
+	/**
+	 * joins the group of segment s with the groups of the vertices seen so far at the position;
+	 * records the vertex if it has not been seen
+	 * @param position -- the position of a vertex of segment s along the line
+	 * @param s -- the index of a segment
+	 * @param groupOfVertex -- position of each vertex seen so far -> a segment containing it
+	 * @param parent -- union-find parent of each segment's group
+	 */
+	private void joinGroupsAt(double position, int s, TreeMap<Double, Integer> groupOfVertex, int[] parent) {
+		Map<Double, Integer> seen = groupOfVertex.subMap(position - MathUtilities.EPSILON, true,
+		                                                 position + MathUtilities.EPSILON, true);
+		if(seen.isEmpty()) groupOfVertex.put(position, s);
+
+		for(int other: seen.values()) {
+			int root = findGroup(s, parent);
+			int otherRoot = findGroup(other, parent);
+
+			// the group keeps the label of its first segment
+			parent[Math.max(root, otherRoot)] = Math.min(root, otherRoot);
 		}
-		return -1;
 	}
 
 	/**
-	 * groups segments in to bins such that each group has the same slope and is contiguous
-	 * @param sortedSegments
-	 * @return grouped segments
+	 * @param s -- the index of a segment
+	 * @param parent -- union-find parent of each segment's group
+	 * @return the label (first segment) of the group of segment s
 	 */
-	private ArrayList<ArrayList<Segment>> contructGroupedSegments(List<Segment> sortedSegments) {
-		ArrayList<ArrayList<Segment>> groupedSegments = new ArrayList<ArrayList<Segment>>();
-		for(Segment segment: sortedSegments) {
-			int belongsTo = getBelongingGroup(segment, groupedSegments);
-			if(belongsTo >= 0) {
-				groupedSegments.get(belongsTo).add(segment);
-			}
-			else {
-				ArrayList<Segment> newGroup = new ArrayList<Segment>();
-				newGroup.add(segment);
-				groupedSegments.add(newGroup);
-			}
+	private int findGroup(int s, int[] parent) {
+		while(parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
 		}
-		return groupedSegments;
+		return s;
 	}
 
 	/**
@@ -301,17 +731,71 @@ public class Preprocessor
 	}
 
 	/**
-	 * Constructs the set of non-minimal segments
+	 * Constructs the set of non-minimal segments; the minimal segments are
+	 * bucketed by line and each line is grouped into contiguous runs
 	 * @param allMinimalSegments
 	 * @return set of non-minimal segments
 	 */
 	protected Set<Segment> constructAllNonMinimalSegments(Set<Segment> allMinimalSegments) {
-		List<Segment> sortedSegments = sortSegments(allMinimalSegments);
 		Set<Segment> nonMinimalSegments = new LinkedHashSet<Segment>();
-		ArrayList<ArrayList<Segment>> groupedSegments = contructGroupedSegments(sortedSegments);
-		for(ArrayList<Segment> group: groupedSegments) {
+		for(ArrayList<Segment> group: groupAlongLines(allMinimalSegments)) {
 			nonMinimalSegments.addAll(mergeGroup(group));
 		}
 		return nonMinimalSegments;
 	}
+
+	/**
+	 * Constructs the database of all (minimal and non-minimal) segments; a group that
+	 * is a chain of minimal segments is stored as a run of points without materializing
+	 * its non-minimal segments
+	 * @param groups -- the contiguous groups of minimal segments along each line
+	 * @return the segment database
+	 */
+	protected SegmentStore constructSegmentDatabase(List<ArrayList<Segment>> groups) {
+		SegmentStore database = new SegmentStore();
+		for(ArrayList<Segment> group: groups) {
+			List<Point> run = getChain(group);
+			if(run != null) {
+				database.addRun(run);
+			}
+			else {
+				group.forEach((segment) -> database.put(segment, segment));
+				mergeGroup(group).forEach((segment) -> database.put(segment, segment));
+			}
+		}
+		return database;
+	}
+
+	/**
+	 * buckets the minimal segments by line and groups each line into contiguous runs
+	 * @param allMinimalSegments
+	 * @return the groups of all lines
+	 */
+	private List<ArrayList<Segment>> groupAlongLines(Set<Segment> allMinimalSegments) {
+		List<ArrayList<Segment>> groups = new ArrayList<ArrayList<Segment>>();
+		for(List<Segment> line: new CollinearLineBuckets(allMinimalSegments).getLines()) {
+			groups.addAll(contructGroupedSegments(sortAlongLine(line)));
+		}
+		return groups;
+	}
+
+	/**
+	 * determines the points of a group that is a chain: each segment (sorted along the line)
+	 * begins where the previous one ends
+	 * @param group
+	 * @return the points of the chain in order; null if the group is not a chain
+	 */
+	private List<Point> getChain(ArrayList<Segment> group) {
+		List<Point> points = new ArrayList<Point>();
+		for(Segment segment: group) {
+			Point first = segment.getPoint1().compareTo(segment.getPoint2()) <= 0 ? segment.getPoint1() : segment.getPoint2();
+			Point last = first == segment.getPoint1() ? segment.getPoint2() : segment.getPoint1();
+
+			if(points.isEmpty()) points.add(first);
+			else if(!points.get(points.size()-1).equals(first)) return null;
+
+			points.add(last);
+		}
+		return points;
+	}
 }
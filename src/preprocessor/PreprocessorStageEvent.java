@@ -0,0 +1,34 @@
+package preprocessor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for a single stage of Preprocessor.analyze;
+ * the event's duration is the wall time of the stage.
+ */
+@Name("preprocessor.PreprocessorStage")
+@Label("Preprocessor Stage")
+@Category({ "Geometry", "Preprocessor" })
+@Description("A stage of preprocessing a figure")
+public class PreprocessorStageEvent extends jdk.jfr.Event
+{
+	@Label("Stage")
+	public String stage;
+
+	@Label("CPU Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long cpuTime;
+
+	@Label("Allocated")
+	@DataAmount(DataAmount.BYTES)
+	public long allocated;
+
+	@Label("Cardinality")
+	@Description("The size of the stage's output")
+	public long cardinality;
+}
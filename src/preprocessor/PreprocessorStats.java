@@ -0,0 +1,171 @@
+package preprocessor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-stage measurements of Preprocessor.analyze: wall time, CPU time,
+ * bytes allocated (by the analyzing thread) and the size of each stage's output.
+ *
+ * CPU time and allocation come from the platform ThreadMXBean; where the JVM does not
+ * support a measurement it is reported as -1. Each stage is also emitted as a
+ * PreprocessorStageEvent for Java Flight Recorder when a recording enables it.
+ */
+public class PreprocessorStats
+{
+	/**
+	 * The stages of the analysis and the cardinality recorded for each:
+	 *    IMPLICIT_POINTS      -- the number of implicit points
+	 *    IMPLICIT_SEGMENTS    -- the number of implicit base segments
+	 *    MINIMAL_SEGMENTS     -- the number of minimal segments
+	 *    NON_MINIMAL_SEGMENTS -- the number of pairs of minimal segments merged (grouping by line)
+	 *    SEGMENT_DATABASE     -- the number of segments in the database
+	 */
+	public enum Stage { IMPLICIT_POINTS, IMPLICIT_SEGMENTS, MINIMAL_SEGMENTS, NON_MINIMAL_SEGMENTS, SEGMENT_DATABASE }
+
+	/**
+	 * The measurements of a single stage.
+	 */
+	public static class StageStats
+	{
+		protected long _wallNanos;
+		protected long _cpuNanos;
+		protected long _allocatedBytes;
+		protected long _cardinality;
+
+		public long getWallNanos() { return _wallNanos; }
+		public long getCpuNanos() { return _cpuNanos; }
+		public long getAllocatedBytes() { return _allocatedBytes; }
+		public long getCardinality() { return _cardinality; }
+
+		@Override
+		public String toString()
+		{
+			return String.format("wall=%.3fms cpu=%.3fms allocated=%dB n=%d",
+			                     _wallNanos / 1e6, _cpuNanos / 1e6, _allocatedBytes, _cardinality);
+		}
+	}
+
+	protected Map<Stage, StageStats> _stages;
+
+	public PreprocessorStats()
+	{
+		_stages = new EnumMap<Stage, StageStats>(Stage.class);
+	}
+
+	/**
+	 * @return the measurements of the stage; null if the stage has not run
+	 */
+	public StageStats get(Stage stage) { return _stages.get(stage); }
+
+	/**
+	 * @return the total wall time of all stages run
+	 */
+	public long getTotalWallNanos()
+	{
+		return _stages.values().stream().mapToLong(StageStats::getWallNanos).sum();
+	}
+
+	/**
+	 * @return the stage with the largest wall time; null if no stage has run
+	 */
+	public Stage getSlowestStage()
+	{
+		Stage slowest = null;
+		for (Map.Entry<Stage, StageStats> entry : _stages.entrySet())
+		{
+			if (slowest == null || entry.getValue()._wallNanos > _stages.get(slowest)._wallNanos) slowest = entry.getKey();
+		}
+		return slowest;
+	}
+
+	/**
+	 * Begin measuring a stage on the current thread.
+	 * @return the measurement to end once the stage is complete
+	 */
+	public Measurement begin(Stage stage) { return new Measurement(stage); }
+
+	/**
+	 * A stage being measured.
+	 */
+	public class Measurement
+	{
+		private final Stage _stage;
+		private final PreprocessorStageEvent _event;
+		private final long _wallStart;
+		private final long _cpuStart;
+		private final long _allocatedStart;
+
+		private Measurement(Stage stage)
+		{
+			_stage = stage;
+			_event = new PreprocessorStageEvent();
+
+			_cpuStart = cpuTime();
+			_allocatedStart = allocatedBytes();
+			_event.begin();
+			_wallStart = System.nanoTime();
+		}
+
+		/**
+		 * Record the measurements of the stage.
+		 * @param cardinality -- the size of the stage's output
+		 */
+		public void end(long cardinality)
+		{
+			long wallEnd = System.nanoTime();
+			long cpuEnd = cpuTime();
+			long allocatedEnd = allocatedBytes();
+
+			StageStats stats = new StageStats();
+			stats._wallNanos = wallEnd - _wallStart;
+			stats._cpuNanos = _cpuStart < 0 || cpuEnd < 0 ? -1 : cpuEnd - _cpuStart;
+			stats._allocatedBytes = _allocatedStart < 0 || allocatedEnd < 0 ? -1 : allocatedEnd - _allocatedStart;
+			stats._cardinality = cardinality;
+
+			_stages.put(_stage, stats);
+
+			_event.end();
+			if (_event.shouldCommit())
+			{
+				_event.stage = _stage.name();
+				_event.cpuTime = stats._cpuNanos;
+				_event.allocated = stats._allocatedBytes;
+				_event.cardinality = cardinality;
+				_event.commit();
+			}
+		}
+	}
+
+	private static long cpuTime()
+	{
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long allocatedBytes()
+	{
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+
+		com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean)threads;
+		if (!allocation.isThreadAllocatedMemorySupported() || !allocation.isThreadAllocatedMemoryEnabled()) return -1;
+
+		return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("PreprocessorStats");
+		for (Map.Entry<Stage, StageStats> entry : _stages.entrySet())
+		{
+			sb.append("\n    " + entry.getKey() + ": " + entry.getValue());
+		}
+		return sb.toString();
+	}
+}
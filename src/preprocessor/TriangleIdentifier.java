@@ -1,25 +1,50 @@
 package preprocessor;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import exceptions.FactException;
 import geometry_objects.Segment;
 import geometry_objects.Triangle;
-import geometry_objects.angle.Angle;
+import geometry_objects.points.Point;
+import preprocessor.delegates.SegmentGraph;
+import preprocessor.delegates.VertexSpliterator;
 
 public class TriangleIdentifier
 {
+	/**
+	 * The means by which triangles are identified:
+	 *    SEGMENT_TRIPLES -- attempt every triple of segments (reference)
+	 *    FORWARD         -- list the triangles of the graph of segments on their endpoints
+	 *                       (degree-ordered forward algorithm; see SegmentGraph)
+	 *    BITSET          -- as FORWARD, intersecting bitset adjacency rows (dense figures)
+	 *    AUTO            -- BITSET if the graph of segments is dense; FORWARD otherwise
+	 * All modes identify the same triangles.
+	 */
+	public enum Mode { SEGMENT_TRIPLES, FORWARD, BITSET, AUTO }
+
 	protected Set<Triangle>         _triangles;
 	protected Map<Segment, Segment> _segments; // The set of ALL segments for this figure.
+	protected Mode                  _mode;
+	protected SegmentGraph          _graph;    // The segments as a graph on their endpoints (on demand)
 
 	public TriangleIdentifier(Map<Segment, Segment> segments)
+	{
+		this(segments, Mode.AUTO);
+	}
+
+	public TriangleIdentifier(Map<Segment, Segment> segments, Mode mode)
 	{
 		_segments = segments;
+		_mode = mode;
 	}
 
 	/*
@@ -32,7 +57,42 @@ public class TriangleIdentifier
 
 		_triangles = new HashSet<Triangle>();
 
-		computeTriangles();
+		switch (_mode)
+		{
+			case SEGMENT_TRIPLES:
+				computeTriangles();
+				break;
+
+			case FORWARD:
+			case BITSET:
+			case AUTO:
+			default:
+				listTriangles();
+		}
+
+		return _triangles;
+	}
+
+	/*
+	 * Compute the figure triangles in parallel; the result is the same as that of getTriangles().
+	 *
+	 * Each triangle is found once, from its lowest-numbered vertex: ranges of lowest vertices
+	 * are enumerated independently (on @pool) and their triangles concatenated; no triangle
+	 * appears in two ranges. The triples engine (SEGMENT_TRIPLES) is not partitioned.
+	 *
+	 * @param pool -- the pool on which the ranges of vertices are processed
+	 */
+	public Set<Triangle> getTriangles(ForkJoinPool pool)
+	{
+		if (_triangles != null) return _triangles;
+
+		if (_mode == Mode.SEGMENT_TRIPLES) return getTriangles();
+
+		SegmentGraph graph = graph();
+
+		List<Triangle> triangles = pool.invoke(new VertexRangeTask(graph, 0, graph.numVertices()));
+
+		_triangles = new HashSet<Triangle>(triangles);
 
 		return _triangles;
 	}
@@ -40,7 +100,7 @@ public class TriangleIdentifier
 	private void computeTriangles()
 	{
 		ArrayList<Segment> segments = new ArrayList<Segment>(_segments.keySet());
-		
+
 		for(int i=0; i<segments.size()-2; i++) {
 			for(int j=i+1; j<segments.size()-1; j++) {
 				for (int k=j+1; k<segments.size(); k++) {
@@ -52,9 +112,180 @@ public class TriangleIdentifier
 						Triangle triangle = new Triangle(segs);
 						_triangles.add(triangle);
 					}
-					catch (FactException e) {}	
+					catch (FactException e) {}
 				}
 			}
 		}
 	}
+
+	/*
+	 * Only segments pairwise sharing endpoints can bound a triangle: list the triangles
+	 * of the graph of segments rather than attempting every triple of segments.
+	 */
+	private void listTriangles()
+	{
+		SegmentGraph graph = graph();
+
+		forEachTriangle(graph, 0, graph.numVertices(), (s1, s2, s3) -> {
+			_triangles.add(graph.triangle(s1, s2, s3));
+			return true;
+		});
+	}
+
+	/**
+	 * The triangles of the figure, enumerated lazily (by lowest vertex) rather than collected;
+	 * the stream splits by ranges of vertices and so may be made parallel.
+	 *
+	 * @return a stream of the (distinct) triangles; that of the set if already computed
+	 */
+	public Stream<Triangle> stream()
+	{
+		if (_triangles != null) return _triangles.stream();
+
+		SegmentGraph graph = graph();
+
+		VertexSpliterator<Triangle> triangles = new VertexSpliterator<Triangle>((u, action) ->
+			forEachTriangle(graph, u, u + 1, (s1, s2, s3) -> {
+				action.accept(graph.triangle(s1, s2, s3));
+				return true;
+			}), 0, graph.numVertices());
+
+		return StreamSupport.stream(triangles, false);
+	}
+
+	/**
+	 * @return the number of triangles in the figure; the triangles are not constructed
+	 *         unless already computed
+	 */
+	public int countTriangles()
+	{
+		if (_triangles != null) return _triangles.size();
+
+		SegmentGraph graph = graph();
+
+		int[] count = new int[1];
+		forEachTriangle(graph, 0, graph.numVertices(), (s1, s2, s3) -> {
+			count[0]++;
+			return true;
+		});
+
+		return count[0];
+	}
+
+	/**
+	 * @param vertex -- a point of the figure
+	 * @return the number of triangles having @vertex as a vertex; only the triangles about
+	 *         @vertex are enumerated and none are constructed
+	 */
+	public int countTrianglesAt(Point vertex)
+	{
+		SegmentGraph graph = graph();
+
+		int x = graph.numberOf(vertex);
+		if (x < 0) return 0;
+
+		int[] count = new int[1];
+		graph.forEachTriangleAt(x, (s1, s2, s3) -> {
+			count[0]++;
+			return true;
+		});
+
+		return count[0];
+	}
+
+	/**
+	 * @param predicate -- a condition on triangles
+	 * @return true if some triangle of the figure satisfies @predicate; the enumeration ends
+	 *         at the first such triangle and the triangles are not collected
+	 */
+	public boolean anyTriangle(Predicate<Triangle> predicate)
+	{
+		if (_triangles != null) return _triangles.stream().anyMatch(predicate);
+
+		SegmentGraph graph = graph();
+
+		return !forEachTriangle(graph, 0, graph.numVertices(), (s1, s2, s3) -> !predicate.test(graph.triangle(s1, s2, s3)));
+	}
+
+	/*
+	 * The graph of segments; built once.
+	 */
+	protected SegmentGraph graph()
+	{
+		if (_graph == null) _graph = new SegmentGraph(_segments.keySet());
+
+		return _graph;
+	}
+
+	/*
+	 * Enumerate the triangles of the graph whose lowest vertex is in [from, to) with the engine of the mode.
+	 */
+	protected boolean forEachTriangle(SegmentGraph graph, int from, int to, SegmentGraph.TriangleVisitor visitor)
+	{
+		boolean dense = _mode == Mode.BITSET || (_mode == Mode.AUTO && graph.isDense());
+
+		return dense ? graph.forEachTriangleDense(from, to, visitor) : graph.forEachTriangle(from, to, visitor);
+	}
+
+	/*
+	 * The triangles whose lowest vertex is in [_lo, _hi).
+	 */
+	private class VertexRangeTask extends RecursiveTask<List<Triangle>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		// A range of vertices with fewer candidate (u, v, w) paths than this is processed sequentially
+		private static final long PATHS_PER_TASK = 4096;
+
+		private final SegmentGraph _graph;
+		private final int _lo;
+		private final int _hi;
+
+		private VertexRangeTask(SegmentGraph graph, int lo, int hi)
+		{
+			_graph = graph;
+			_lo = lo;
+			_hi = hi;
+		}
+
+		@Override
+		protected List<Triangle> compute()
+		{
+			if (_hi - _lo <= 1 || numPaths() <= PATHS_PER_TASK)
+			{
+				List<Triangle> triangles = new ArrayList<Triangle>();
+				forEachTriangle(_graph, _lo, _hi, (s1, s2, s3) -> {
+					triangles.add(_graph.triangle(s1, s2, s3));
+					return true;
+				});
+				return triangles;
+			}
+
+			int mid = (_lo + _hi) >>> 1;
+
+			VertexRangeTask left = new VertexRangeTask(_graph, _lo, mid);
+			VertexRangeTask right = new VertexRangeTask(_graph, mid, _hi);
+
+			right.fork();
+			List<Triangle> triangles = left.compute();
+			triangles.addAll(right.join());
+
+			return triangles;
+		}
+
+		/*
+		 * An estimate of the forward paths u -> v -> w (candidate triangles) from the vertices u
+		 * of the range: the square of the forward degree of each u.
+		 */
+		private long numPaths()
+		{
+			long paths = 0;
+			for (int u = _lo; u < _hi; u++)
+			{
+				long forward = _graph.forwardDegree(u);
+				paths += forward * forward;
+			}
+			return paths;
+		}
+	}
 }
@@ -0,0 +1,65 @@
+package preprocessor.delegates;
+
+import java.util.Arrays;
+
+/**
+ * A growable collection of candidate (i, j) pairs of segment indices.
+ *
+ * Each pair is packed into a single long as (i << 32) | j with i < j so
+ * sorting the packed values orders the pairs by i first and j second.
+ */
+public class CandidatePairs
+{
+	protected long[] _pairs;
+	protected int _size;
+
+	public CandidatePairs()
+	{
+		_pairs = new long[16];
+		_size = 0;
+	}
+
+	/**
+	 * Add the pair of indices (in either order); a pair of equal indices is ignored.
+	 */
+	public void add(int i, int j)
+	{
+		if (i == j) return;
+
+		if (_size == _pairs.length) _pairs = Arrays.copyOf(_pairs, 2 * _pairs.length);
+
+		_pairs[_size++] = pack(Math.min(i, j), Math.max(i, j));
+	}
+
+	/**
+	 * Add all pairs of the other collection.
+	 */
+	public void addAll(CandidatePairs that)
+	{
+		if (_size + that._size > _pairs.length) _pairs = Arrays.copyOf(_pairs, Math.max(2 * _pairs.length, _size + that._size));
+
+		System.arraycopy(that._pairs, 0, _pairs, _size, that._size);
+		_size += that._size;
+	}
+
+	public static long pack(int i, int j) { return ((long)i << 32) | j; }
+	public static int first(long pair) { return (int)(pair >>> 32); }
+	public static int second(long pair) { return (int)pair; }
+
+	/**
+	 * @return the pairs added in (i, j) order without duplicates
+	 */
+	public long[] toSortedArray()
+	{
+		long[] pairs = Arrays.copyOf(_pairs, _size);
+		Arrays.sort(pairs);
+
+		int unique = 0;
+		for (int k = 0; k < pairs.length; k++)
+		{
+			if (unique == 0 || pairs[unique - 1] != pairs[k]) pairs[unique++] = pairs[k];
+		}
+
+		return Arrays.copyOf(pairs, unique);
+	}
+}
@@ -0,0 +1,178 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometry_objects.Segment;
+import utilities.math.MathUtilities;
+
+/**
+ * Segments bucketed by the (infinite) line on which they lie.
+ *
+ * A line is keyed by its unit normal (a, b) and offset c (ax + by = c) as cached
+ * by each Segment, quantized into bins twice the tolerance wide. Two segments lie
+ * on the same line if all three values agree within tolerance; such values fall in
+ * the same bin or in the adjacent bin on the near side of a bin boundary, and the
+ * normal may be oriented either way, so a lookup probes only a handful of bins.
+ *
+ * Lines are numbered (and reported) in the order in which they are first seen.
+ */
+public class CollinearLineBuckets
+{
+	// Agreement required of the normal and offset of segments on the same line
+	public static final double TOLERANCE = MathUtilities.EPSILON;
+
+	private static final double BIN = 2 * TOLERANCE;
+
+	// The representative (first) segment of each line and the segments on each line
+	protected List<Segment> _representatives;
+	protected List<List<Segment>> _lines;
+
+	// Quantized (a, b, c) of a representative -> its line id(s)
+	protected Map<LineKey, List<Integer>> _buckets;
+
+	public CollinearLineBuckets()
+	{
+		_representatives = new ArrayList<Segment>();
+		_lines = new ArrayList<List<Segment>>();
+		_buckets = new HashMap<LineKey, List<Integer>>();
+	}
+
+	public CollinearLineBuckets(Collection<Segment> segments)
+	{
+		this();
+
+		segments.forEach((segment) -> add(segment));
+	}
+
+	public int size() { return _lines.size(); }
+
+	/**
+	 * @return the segments of each line, lines in the order first seen and
+	 *         segments of a line in the order added
+	 */
+	public List<List<Segment>> getLines() { return _lines; }
+
+	/**
+	 * @param lineId -- a line id
+	 * @return the first segment added to the line
+	 */
+	public Segment getRepresentative(int lineId) { return _representatives.get(lineId); }
+
+	/**
+	 * Add a segment to its line (a new line if none match).
+	 * @return the id of the line
+	 */
+	public int add(Segment segment)
+	{
+		int lineId = lineOf(segment);
+
+		if (lineId < 0)
+		{
+			lineId = _lines.size();
+			_representatives.add(segment);
+			_lines.add(new ArrayList<Segment>());
+			_buckets.computeIfAbsent(new LineKey(segment.lineA(), segment.lineB(), segment.lineC()),
+			                         (k) -> new ArrayList<Integer>()).add(lineId);
+		}
+
+		_lines.get(lineId).add(segment);
+
+		return lineId;
+	}
+
+	/**
+	 * @return the id of the line on which the segment lies; -1 if no such line has been added
+	 */
+	public int lineOf(Segment segment)
+	{
+		double a = segment.lineA(), b = segment.lineB(), c = segment.lineC();
+
+		int lineId = probe(a, b, c);
+
+		return lineId >= 0 ? lineId : probe(-a, -b, -c);
+	}
+
+	/*
+	 * Probe the bins within tolerance of (a, b, c).
+	 */
+	private int probe(double a, double b, double c)
+	{
+		long[] as = bins(a), bs = bins(b), cs = bins(c);
+
+		for (long ka : as)
+		{
+			for (long kb : bs)
+			{
+				for (long kc : cs)
+				{
+					List<Integer> ids = _buckets.get(new LineKey(ka, kb, kc));
+					if (ids == null) continue;
+
+					for (int id : ids)
+					{
+						if (matches(_representatives.get(id), a, b, c)) return id;
+					}
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	private static boolean matches(Segment representative, double a, double b, double c)
+	{
+		return Math.abs(representative.lineA() - a) < TOLERANCE &&
+		       Math.abs(representative.lineB() - b) < TOLERANCE &&
+		       Math.abs(representative.lineC() - c) < TOLERANCE;
+	}
+
+	private static long bin(double value) { return (long)Math.floor(value / BIN); }
+
+	/*
+	 * @return the bin of the value and, if the value is within tolerance of a
+	 *         bin boundary, the adjacent bin across that boundary
+	 */
+	private static long[] bins(double value)
+	{
+		long k = bin(value);
+
+		if (value - k * BIN < TOLERANCE) return new long[] { k, k - 1 };
+		if ((k + 1) * BIN - value < TOLERANCE) return new long[] { k, k + 1 };
+
+		return new long[] { k };
+	}
+
+	/**
+	 * A quantized line.
+	 */
+	protected static class LineKey
+	{
+		private final long _a, _b, _c;
+
+		private LineKey(double a, double b, double c) { this(bin(a), bin(b), bin(c)); }
+
+		private LineKey(long a, long b, long c)
+		{
+			_a = a;
+			_b = b;
+			_c = c;
+		}
+
+		@Override
+		public int hashCode() { return Long.hashCode(_a) * 961 + Long.hashCode(_b) * 31 + Long.hashCode(_c); }
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof LineKey)) return false;
+
+			LineKey that = (LineKey)obj;
+
+			return _a == that._a && _b == that._b && _c == that._c;
+		}
+	}
+}
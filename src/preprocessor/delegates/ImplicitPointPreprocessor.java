@@ -1,8 +1,8 @@
 package preprocessor.delegates;
 
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import geometry_objects.Segment;
 import geometry_objects.delegates.intersections.IntersectionDelegate;
@@ -12,31 +12,148 @@ import geometry_objects.points.PointNamingFactory;
 
 public class ImplicitPointPreprocessor
 {
+	/**
+	 * The means by which we locate the pairs of segments that intersect:
+	 *    PAIRWISE   -- check for intersection between all segments (reference)
+	 *    SWEEP_LINE -- Bentley-Ottmann sweep; only neighboring segments are checked
+	 *    UNIFORM_GRID -- only segments sharing a cell of a uniform grid are checked
+	 *    PARALLEL   -- check all segments; blocks of pairs are checked on the common ForkJoinPool
+	 */
+	public enum Mode { PAIRWISE, SWEEP_LINE, UNIFORM_GRID, PARALLEL }
+
 	/**
 	 * It is possible that some of the defined segments intersect
 	 * and points that are not named; we need to capture those
 	 * points and name them.
-	 * 
+	 *
+	 * The implicit points are interned in @givenPoints as implicit entries
+	 * (dense ids like the given points; see PointDatabase.putImplicit).
+	 *
 	 * Algorithm:
-	 *    check for intersection between all segments
+	 *    sweep the figure for all intersecting segments
 	 */
 	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments)
 	{
-		Set<Point> implicitPoints = new LinkedHashSet<Point>();
+		return compute(givenPoints, givenSegments, Mode.SWEEP_LINE);
+	}
+
+	/**
+	 * @param mode -- the means by which intersecting segments are located;
+	 *                all modes produce the same points with the same names
+	 */
+	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments, Mode mode)
+	{
+		return computeIncidence(givenPoints, givenSegments, mode).getImplicitPoints();
+	}
+
+	/**
+	 * The implicit points along with, for each given segment, the implicit points on
+	 * that segment (ordered along the segment). Each point is recorded against the two
+	 * segments that produced it, so no segment is checked against all implicit points.
+	 */
+	public static SegmentIncidence computeIncidence(PointDatabase givenPoints, List<Segment> givenSegments)
+	{
+		return computeIncidence(givenPoints, givenSegments, Mode.SWEEP_LINE);
+	}
+
+	/**
+	 * @param mode -- the means by which intersecting segments are located
+	 */
+	public static SegmentIncidence computeIncidence(PointDatabase givenPoints, List<Segment> givenSegments, Mode mode)
+	{
+		switch (mode)
+		{
+			case SWEEP_LINE:
+				return nameIntersections(givenPoints, givenSegments, SweepLineIntersector.candidatePairs(givenSegments));
+
+			case UNIFORM_GRID:
+				return nameIntersections(givenPoints, givenSegments, new UniformGridBroadPhase(givenSegments).candidatePairs());
+
+			case PARALLEL:
+				return nameIntersections(givenPoints, givenSegments,
+				                         ParallelPairwiseIntersector.intersectingPairs(givenPoints, givenSegments, ForkJoinPool.commonPool()));
+
+			case PAIRWISE:
+			default:
+				return computePairwise(givenPoints, givenSegments);
+		}
+	}
+
+	/**
+	 * Only the pairs of segments that share a grid cell are checked for intersection;
+	 * the broad phase retains its statistics (candidate pairs, rejection rate) for inspection.
+	 *
+	 * @param broadPhase -- a grid built over @givenSegments
+	 */
+	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments, UniformGridBroadPhase broadPhase)
+	{
+		return nameIntersections(givenPoints, givenSegments, broadPhase.candidatePairs()).getImplicitPoints();
+	}
+
+	/**
+	 * Check all pairs of segments for intersection in parallel; names are assigned
+	 * afterward (sequentially) in the order the pairwise algorithm discovers the points.
+	 *
+	 * @param pool -- the pool on which the pairs of segments are checked
+	 */
+	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments, ForkJoinPool pool)
+	{
+		long[] pairs = ParallelPairwiseIntersector.intersectingPairs(givenPoints, givenSegments, pool);
+
+		return nameIntersections(givenPoints, givenSegments, pairs).getImplicitPoints();
+	}
+
+	/*
+	 * Algorithm:
+	 *    check for intersection between all segments
+	 */
+	private static SegmentIncidence computePairwise(PointDatabase givenPoints, List<Segment> givenSegments)
+	{
+		SegmentIncidence incidence = new SegmentIncidence();
 		PointNamingFactory namer = new PointNamingFactory();
-		
+
 		// Iterate through all combinations of segments
         for(int i=0; i<givenSegments.size()-1; i++) {
         	for(int j=i+1; j<givenSegments.size(); j++) {
         		Point intersect = IntersectionDelegate.segmentIntersection(	givenSegments.get(i),
         																	givenSegments.get(j));
-        		if(intersect != null && givenPoints.getPoint(intersect) == null) {
-        			implicitPoints.add(new Point(namer.getCurrentName(), intersect.getX(), intersect.getY()));
+        		if(intersect != null && givenPoints.getExplicitPoint(intersect) == null) {
+        			incidence.add(givenPoints.putImplicit(namer.getCurrentName(), intersect.getX(), intersect.getY()),
+        			              givenSegments.get(i), givenSegments.get(j));
         		}
             }
         }
-		
-		return implicitPoints;
+
+		return incidence;
 	}
 
+	/*
+	 * Confirm each candidate pair of segments and name the intersection points.
+	 *
+	 * Names are generated in discovery order; visiting the candidate pairs in (i, j) order
+	 * reproduces the names generated by the pairwise algorithm. Intersections are computed
+	 * on coordinates; a Point is constructed only for a confirmed, unnamed intersection.
+	 * Implicit points are interned in the point database (see PointDatabase.putImplicit).
+	 *
+	 * @param pairs -- candidate (i, j) pairs packed and sorted as in CandidatePairs
+	 */
+	private static SegmentIncidence nameIntersections(PointDatabase givenPoints, List<Segment> givenSegments, long[] pairs)
+	{
+		SegmentIncidence incidence = new SegmentIncidence();
+		PointNamingFactory namer = new PointNamingFactory();
+		double[] xy = new double[2];
+
+		for (long pair : pairs) {
+			Segment thisS = givenSegments.get(CandidatePairs.first(pair));
+			Segment that = givenSegments.get(CandidatePairs.second(pair));
+
+			if (!IntersectionDelegate.segmentIntersection(thisS, that, xy)) continue;
+
+			if(givenPoints.getExplicitPoint(xy[0], xy[1]) == null) {
+				incidence.add(givenPoints.putImplicit(namer.getCurrentName(), xy[0], xy[1]), thisS, that);
+			}
+		}
+
+		return incidence;
+	}
 }
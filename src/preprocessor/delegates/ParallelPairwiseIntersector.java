@@ -0,0 +1,124 @@
+package preprocessor.delegates;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import geometry_objects.Segment;
+import geometry_objects.delegates.intersections.IntersectionDelegate;
+import geometry_objects.points.PointDatabase;
+
+/**
+ * Checks all pairs of segments for intersection on a ForkJoinPool.
+ *
+ * The triangle of (i, j) pairs, i < j, is split into blocks of consecutive rows
+ * with roughly equal numbers of pairs. Each block reports its intersecting pairs in
+ * (i, j) order and blocks are concatenated in row order, so the result is in the
+ * same order as the sequential pairwise loop regardless of scheduling.
+ */
+public class ParallelPairwiseIntersector
+{
+	// A block with fewer pairs than this is processed sequentially
+	public static final long PAIRS_PER_BLOCK = 4096;
+
+	/**
+	 * @param givenPoints -- the explicit points; intersections at these points are not reported
+	 * @param givenSegments -- the segments to intersect
+	 * @param pool -- the pool on which blocks of pairs are processed
+	 * @return the pairs (i, j), i < j, of segments intersecting at a point other than a given point;
+	 *         packed and sorted in (i, j) order as in CandidatePairs
+	 */
+	public static long[] intersectingPairs(PointDatabase givenPoints, List<Segment> givenSegments, ForkJoinPool pool)
+	{
+		return pool.invoke(new BlockTask(givenPoints, givenSegments, 0, givenSegments.size())).toSortedArray();
+	}
+
+	/**
+	 * The intersecting pairs in rows [_lo, _hi) of the (i, j) triangle.
+	 */
+	private static class BlockTask extends RecursiveTask<CandidatePairs>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final PointDatabase _givenPoints;
+		private final List<Segment> _segments;
+		private final int _lo;
+		private final int _hi;
+
+		private BlockTask(PointDatabase givenPoints, List<Segment> segments, int lo, int hi)
+		{
+			_givenPoints = givenPoints;
+			_segments = segments;
+			_lo = lo;
+			_hi = hi;
+		}
+
+		@Override
+		protected CandidatePairs compute()
+		{
+			if (_hi - _lo <= 1 || numPairs(_lo, _hi) <= PAIRS_PER_BLOCK) return computeBlock();
+
+			int mid = balancedSplit();
+
+			BlockTask left = new BlockTask(_givenPoints, _segments, _lo, mid);
+			BlockTask right = new BlockTask(_givenPoints, _segments, mid, _hi);
+
+			right.fork();
+			CandidatePairs pairs = left.compute();
+			pairs.addAll(right.join());
+
+			return pairs;
+		}
+
+		/*
+		 * The sequential pairwise loop restricted to rows [_lo, _hi)
+		 */
+		private CandidatePairs computeBlock()
+		{
+			CandidatePairs pairs = new CandidatePairs();
+			double[] xy = new double[2];
+
+			for (int i = _lo; i < _hi; i++) {
+				for (int j = i + 1; j < _segments.size(); j++) {
+					if (!IntersectionDelegate.segmentIntersection(_segments.get(i), _segments.get(j), xy)) continue;
+
+					if (_givenPoints.getExplicitPoint(xy[0], xy[1]) == null) {
+						pairs.add(i, j);
+					}
+				}
+			}
+
+			return pairs;
+		}
+
+		/*
+		 * @return the number of pairs (i, j), i < j, in rows [lo, hi)
+		 */
+		private long numPairs(int lo, int hi)
+		{
+			long n = _segments.size();
+
+			// sum_{i = lo}^{hi - 1} (n - 1 - i)
+			return (long)(hi - lo) * (n - 1) - ((long)(hi - 1) * hi - (long)(lo - 1) * lo) / 2;
+		}
+
+		/*
+		 * @return the row that splits [_lo, _hi) into halves with (roughly) equal numbers of pairs
+		 */
+		private int balancedSplit()
+		{
+			long half = numPairs(_lo, _hi) / 2;
+
+			int lo = _lo + 1;
+			int hi = _hi - 1;
+			while (lo < hi)
+			{
+				int mid = (lo + hi) >>> 1;
+				if (numPairs(_lo, mid) < half) lo = mid + 1;
+				else hi = mid;
+			}
+
+			return lo;
+		}
+	}
+}
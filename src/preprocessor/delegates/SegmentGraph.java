@@ -0,0 +1,325 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometry_objects.Segment;
+import geometry_objects.Triangle;
+import geometry_objects.points.Point;
+
+/**
+ * The segments of a figure as a graph on their endpoints: each segment is an edge
+ * joining its endpoints.
+ *
+ * Vertices are numbered in order of degree (ties in order of first appearance) and
+ * each edge is directed from its lower- to its higher-numbered vertex. Every triangle
+ * u < v < w of the graph is found exactly once, from u, by merging the (sorted) forward
+ * neighbors of u and v: the degree-ordered forward algorithm, O(E^1.5) overall.
+ *
+ * For dense graphs the forward neighbors of each vertex are also kept as a bitset row;
+ * intersecting rows word by word tests 64 candidate third vertices at a time.
+ */
+public class SegmentGraph
+{
+	/**
+	 * Visits triangles by the indices of their sides (segments).
+	 */
+	public interface TriangleVisitor
+	{
+		/**
+		 * @return false to end the enumeration
+		 */
+		boolean visit(int segment1, int segment2, int segment3);
+	}
+
+	protected List<Segment> _segments;
+
+	// Vertices by number and the number of each vertex
+	protected Point[] _vertices;
+	protected Map<Point, Integer> _numbers;
+
+	//
+	// The neighbors of each vertex (ascending) and the segment joining the vertex to each;
+	// the forward neighbors (greater numbers) of v begin at _forwardStart[v]
+	//
+	protected int[][] _neighbors;
+	protected int[][] _neighborSegments;
+	protected int[] _forwardStart;
+
+	// A graph with at least this fraction of all vertex pairs joined is dense
+	public static final double DENSE_THRESHOLD = 0.125;
+
+	// The forward neighbors of each vertex as a bitset over vertex numbers (built on demand)
+	protected long[][] _forwardRows;
+
+	/**
+	 * @param segments -- the segments of a figure (distinct)
+	 */
+	public SegmentGraph(Collection<Segment> segments)
+	{
+		_segments = new ArrayList<Segment>(segments);
+
+		// Vertices in order of first appearance and their degrees
+		Map<Point, Integer> appearance = new HashMap<Point, Integer>();
+		List<Point> vertices = new ArrayList<Point>();
+		List<Integer> degrees = new ArrayList<Integer>();
+		for (Segment segment : _segments)
+		{
+			for (Point endpoint : new Point[] { segment.getPoint1(), segment.getPoint2() })
+			{
+				Integer index = appearance.putIfAbsent(endpoint, vertices.size());
+				if (index == null)
+				{
+					vertices.add(endpoint);
+					degrees.add(1);
+				}
+				else degrees.set(index, degrees.get(index) + 1);
+			}
+		}
+
+		// Number the vertices in order of degree
+		Integer[] order = new Integer[vertices.size()];
+		for (int k = 0; k < order.length; k++) order[k] = k;
+		Arrays.sort(order, (left, right) -> Integer.compare(degrees.get(left), degrees.get(right)));
+
+		_vertices = new Point[order.length];
+		_numbers = new HashMap<Point, Integer>();
+		int[] number = new int[order.length];
+		for (int v = 0; v < order.length; v++)
+		{
+			_vertices[v] = vertices.get(order[v]);
+			_numbers.put(_vertices[v], v);
+			number[order[v]] = v;
+		}
+
+		// Adjacency: (neighbor, segment) packed so that sorting orders by neighbor
+		long[][] adjacent = new long[order.length][];
+		int[] filled = new int[order.length];
+		for (int v = 0; v < order.length; v++) adjacent[v] = new long[degrees.get(order[v])];
+		for (int s = 0; s < _segments.size(); s++)
+		{
+			int u = number[appearance.get(_segments.get(s).getPoint1())];
+			int w = number[appearance.get(_segments.get(s).getPoint2())];
+
+			adjacent[u][filled[u]++] = ((long)w << 32) | s;
+			adjacent[w][filled[w]++] = ((long)u << 32) | s;
+		}
+
+		_neighbors = new int[order.length][];
+		_neighborSegments = new int[order.length][];
+		_forwardStart = new int[order.length];
+		for (int v = 0; v < order.length; v++)
+		{
+			Arrays.sort(adjacent[v]);
+
+			_neighbors[v] = new int[adjacent[v].length];
+			_neighborSegments[v] = new int[adjacent[v].length];
+			for (int k = 0; k < adjacent[v].length; k++)
+			{
+				_neighbors[v][k] = (int)(adjacent[v][k] >>> 32);
+				_neighborSegments[v][k] = (int)adjacent[v][k];
+			}
+
+			int forward = 0;
+			while (forward < _neighbors[v].length && _neighbors[v][forward] <= v) forward++;
+			_forwardStart[v] = forward;
+		}
+	}
+
+	public int numVertices() { return _vertices.length; }
+	public int numEdges() { return _segments.size(); }
+	public int degree(int v) { return _neighbors[v].length; }
+	public int forwardDegree(int v) { return _neighbors[v].length - _forwardStart[v]; }
+
+	/**
+	 * @return the fraction of all pairs of vertices joined by a segment
+	 */
+	public double density()
+	{
+		int n = _vertices.length;
+
+		return n < 2 ? 0 : 2.0 * _segments.size() / ((double)n * (n - 1));
+	}
+
+	public boolean isDense() { return density() >= DENSE_THRESHOLD; }
+
+	public Point getVertex(int v) { return _vertices[v]; }
+	public Segment getSegment(int s) { return _segments.get(s); }
+
+	/**
+	 * @return the number of the vertex; -1 if the point is not an endpoint of a segment
+	 */
+	public int numberOf(Point point)
+	{
+		Integer number = _numbers.get(point);
+
+		return number == null ? -1 : number;
+	}
+
+	/**
+	 * Visit each triangle u < v < w whose lowest vertex u is in [from, to); the sides of
+	 * a triangle must constitute a legitimate triangle (see Triangle.isValidTriangle).
+	 *
+	 * @return false if the visitor ended the enumeration
+	 */
+	public boolean forEachTriangle(int from, int to, TriangleVisitor visitor)
+	{
+		for (int u = from; u < to; u++)
+		{
+			for (int k = _forwardStart[u]; k < _neighbors[u].length; k++)
+			{
+				int v = _neighbors[u][k];
+				int uv = _neighborSegments[u][k];
+
+				// Merge the (ascending) forward neighbors of u beyond v with those of v
+				int i = k + 1;
+				int j = _forwardStart[v];
+				while (i < _neighbors[u].length && j < _neighbors[v].length)
+				{
+					if (_neighbors[u][i] < _neighbors[v][j]) i++;
+					else if (_neighbors[u][i] > _neighbors[v][j]) j++;
+					else
+					{
+						int uw = _neighborSegments[u][i++];
+						int vw = _neighborSegments[v][j++];
+						if (!isTriangle(uv, uw, vw)) continue;
+
+						if (!visitor.visit(uv, uw, vw)) return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Visit each triangle having vertex x once: for each pair a < b of neighbors of x joined
+	 * by a segment; the triangles elsewhere in the graph are not considered.
+	 *
+	 * @return false if the visitor ended the enumeration
+	 */
+	public boolean forEachTriangleAt(int x, TriangleVisitor visitor)
+	{
+		// The segment joining x to each of its neighbors; -1 otherwise
+		int[] segmentFromX = new int[_vertices.length];
+		Arrays.fill(segmentFromX, -1);
+		for (int k = 0; k < _neighbors[x].length; k++) segmentFromX[_neighbors[x][k]] = _neighborSegments[x][k];
+
+		for (int k = 0; k < _neighbors[x].length; k++)
+		{
+			int a = _neighbors[x][k];
+			int xa = _neighborSegments[x][k];
+
+			for (int l = _forwardStart[a]; l < _neighbors[a].length; l++)
+			{
+				int xb = segmentFromX[_neighbors[a][l]];
+				if (xb < 0) continue;
+
+				int ab = _neighborSegments[a][l];
+				if (!isTriangle(xa, xb, ab)) continue;
+
+				if (!visitor.visit(xa, xb, ab)) return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Visit the same triangles as forEachTriangle(from, to, visitor) by intersecting
+	 * the forward bitset rows of u and v (suited to dense graphs).
+	 *
+	 * @return false if the visitor ended the enumeration
+	 */
+	public boolean forEachTriangleDense(int from, int to, TriangleVisitor visitor)
+	{
+		long[][] rows = forwardRows();
+
+		for (int u = from; u < to; u++)
+		{
+			for (int k = _forwardStart[u]; k < _neighbors[u].length; k++)
+			{
+				int v = _neighbors[u][k];
+				int uv = _neighborSegments[u][k];
+
+				// Forward neighbors of v are greater than v: begin at the word holding v + 1
+				for (int word = (v + 1) >>> 6; word < rows[u].length; word++)
+				{
+					long common = rows[u][word] & rows[v][word];
+
+					while (common != 0)
+					{
+						int w = (word << 6) + Long.numberOfTrailingZeros(common);
+						common &= common - 1;
+
+						int uw = segmentTo(u, w);
+						int vw = segmentTo(v, w);
+						if (!isTriangle(uv, uw, vw)) continue;
+
+						if (!visitor.visit(uv, uw, vw)) return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * @return the segment joining v to its forward neighbor w
+	 */
+	private int segmentTo(int v, int w)
+	{
+		return _neighborSegments[v][Arrays.binarySearch(_neighbors[v], _forwardStart[v], _neighbors[v].length, w)];
+	}
+
+	/*
+	 * The forward bitset rows; built once.
+	 */
+	private synchronized long[][] forwardRows()
+	{
+		if (_forwardRows != null) return _forwardRows;
+
+		int words = (_vertices.length + 63) >>> 6;
+
+		long[][] rows = new long[_vertices.length][words];
+		for (int v = 0; v < _vertices.length; v++)
+		{
+			for (int k = _forwardStart[v]; k < _neighbors[v].length; k++)
+			{
+				int w = _neighbors[v][k];
+				rows[v][w >>> 6] |= 1L << w;
+			}
+		}
+
+		_forwardRows = rows;
+
+		return _forwardRows;
+	}
+
+	/*
+	 * Three segments pairwise sharing distinct vertices: a triangle unless collinear.
+	 */
+	private boolean isTriangle(int s1, int s2, int s3)
+	{
+		return Triangle.isValidTriangle(_segments.get(s1), _segments.get(s2), _segments.get(s3));
+	}
+
+	/**
+	 * @return the triangle with the given sides; the sides are taken in the order of their
+	 *         indices, as the segments of a triple (i, j, k), i < j < k, would be
+	 */
+	public Triangle triangle(int s1, int s2, int s3)
+	{
+		int lo = Math.min(s1, Math.min(s2, s3));
+		int hi = Math.max(s1, Math.max(s2, s3));
+		int mid = s1 + s2 + s3 - lo - hi;
+
+		return Triangle.create(_segments.get(lo), _segments.get(mid), _segments.get(hi));
+	}
+}
@@ -0,0 +1,120 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+/**
+ * The implicit points of a figure along with the incidence of each given
+ * segment with the implicit points lying on it.
+ *
+ * Each implicit point is discovered as the intersection of a pair of given
+ * segments; the point is recorded against both segments of every such pair.
+ * The points on a segment are ordered along the segment (lexicographically,
+ * as the segment would be split).
+ */
+public class SegmentIncidence
+{
+	// The implicit points in naming order; key == value
+	protected Map<Point, Point> _implicitPoints;
+
+	// Given segment -> the implicit points lying (strictly) between its endpoints
+	protected Map<Segment, List<Point>> _incidence;
+
+	protected boolean _ordered;
+
+	public SegmentIncidence()
+	{
+		_implicitPoints = new LinkedHashMap<Point, Point>();
+		_incidence = new HashMap<Segment, List<Point>>();
+		_ordered = true;
+	}
+
+	/**
+	 * @return the implicit points in the order they were named
+	 */
+	public Set<Point> getImplicitPoints() { return new LinkedHashSet<Point>(_implicitPoints.keySet()); }
+
+	/**
+	 * @param segment -- a given segment
+	 * @return the implicit points lying between the endpoints of @segment ordered along the segment;
+	 *         empty if there are none
+	 */
+	public List<Point> getPoints(Segment segment)
+	{
+		order();
+
+		List<Point> points = _incidence.get(segment);
+
+		return points == null ? Collections.emptyList() : Collections.unmodifiableList(points);
+	}
+
+	/**
+	 * @return the given segments with at least one implicit point between their endpoints
+	 */
+	public Set<Segment> getSegments() { return Collections.unmodifiableSet(_incidence.keySet()); }
+
+	/**
+	 * Record an implicit point resulting from the intersection of two given segments.
+	 *
+	 * @param point -- a named implicit point; an equal point already recorded takes precedence
+	 * @return true if the point had not been recorded
+	 */
+	public boolean add(Point point, Segment thisS, Segment that)
+	{
+		Point existing = _implicitPoints.putIfAbsent(point, point);
+		Point recorded = existing == null ? point : existing;
+
+		incident(thisS, recorded);
+		incident(that, recorded);
+
+		return existing == null;
+	}
+
+	private void incident(Segment segment, Point point)
+	{
+		// The recorded point may differ (within tolerance) from this pair's intersection
+		if (!segment.pointLiesBetweenEndpoints(point)) return;
+
+		_incidence.computeIfAbsent(segment, (k) -> new ArrayList<Point>()).add(point);
+		_ordered = false;
+	}
+
+	/*
+	 * Order the points of each segment along the segment; a point recorded
+	 * by several pairs (concurrent segments) is kept once.
+	 */
+	private void order()
+	{
+		if (_ordered) return;
+
+		for (List<Point> points : _incidence.values())
+		{
+			points.sort(Comparator.naturalOrder());
+
+			int unique = 0;
+			for (int k = 0; k < points.size(); k++)
+			{
+				if (unique == 0 || !points.get(unique - 1).equals(points.get(k))) points.set(unique++, points.get(k));
+			}
+			points.subList(unique, points.size()).clear();
+		}
+
+		_ordered = true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SegmentIncidence(" + _implicitPoints.size() + " implicit points on " + _incidence.size() + " segments)";
+	}
+}
@@ -0,0 +1,337 @@
+package preprocessor.delegates;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import utilities.math.MathUtilities;
+
+/**
+ * A compact database of segments presented as a Map<Segment, Segment> (key == value).
+ *
+ * A contiguous run of minimal segments along a line is stored as its ordered
+ * points p_0, ..., p_k; every subsegment (run, i, j), i < j, is in the database
+ * without being materialized. Segments are constructed on demand by get() and
+ * iteration; containsKey() locates the run by line and the endpoints by their
+ * position along the run.
+ *
+ * Any other segment is stored explicitly. Segments removed from a run are
+ * recorded as (run, i, j) so that incremental edits need not rebuild the run.
+ */
+public class SegmentStore extends AbstractMap<Segment, Segment>
+{
+	// Each run: its points in order along the line, the segment spanning the run,
+	// and the positions of the points along that segment
+	protected List<Point[]> _runs;
+	protected List<Segment> _spans;
+	protected List<double[]> _positions;
+
+	// The runs of each line
+	protected CollinearLineBuckets _lines;
+	protected List<List<Integer>> _runsOfLine;
+
+	// Subsegments removed from the runs, packed as in pack()
+	protected Set<Long> _removed;
+
+	protected Map<Segment, Segment> _explicit;
+
+	// The number of segments; a long run alone holds more than Integer.MAX_VALUE subsegments
+	protected long _size;
+
+	public SegmentStore()
+	{
+		_runs = new ArrayList<Point[]>();
+		_spans = new ArrayList<Segment>();
+		_positions = new ArrayList<double[]>();
+		_lines = new CollinearLineBuckets();
+		_runsOfLine = new ArrayList<List<Integer>>();
+		_removed = new HashSet<Long>();
+		_explicit = new LinkedHashMap<Segment, Segment>();
+		_size = 0;
+	}
+
+	/**
+	 * Add every subsegment of a run of points along a line.
+	 *
+	 * @param points -- (at least two) distinct points in order along a line; the
+	 *                  subsegments must not already be in the database
+	 * @throws IllegalArgumentException if the run has more than MAX_RUN_LENGTH points
+	 * @throws IllegalStateException if the database already holds MAX_RUNS runs
+	 */
+	public void addRun(List<Point> points)
+	{
+		if (points.size() > MAX_RUN_LENGTH) throw new IllegalArgumentException("Run of " + points.size() + " points exceeds " + MAX_RUN_LENGTH);
+		if (_runs.size() >= MAX_RUNS) throw new IllegalStateException("Number of runs exceeds " + MAX_RUNS);
+
+		Point[] run = points.toArray(new Point[points.size()]);
+
+		Segment line = new Segment(run[0], run[run.length - 1]);
+		double[] positions = new double[run.length];
+		for (int i = 0; i < run.length; i++) positions[i] = positionAlong(line, run[i]);
+
+		int lineId = _lines.add(line);
+		if (lineId == _runsOfLine.size()) _runsOfLine.add(new ArrayList<Integer>());
+
+		_runsOfLine.get(lineId).add(_runs.size());
+		_runs.add(run);
+		_spans.add(line);
+		_positions.add(positions);
+
+		_size += (long)run.length * (run.length - 1) / 2;
+	}
+
+	private static double positionAlong(Segment line, Point point)
+	{
+		return line.directionX() * point.getX() + line.directionY() * point.getY();
+	}
+
+	/*
+	 * @return the subsegment packed as (run, i, j), i < j; -1 if the segment does not lie along a run
+	 */
+	private long locate(Segment segment)
+	{
+		int lineId = _lines.lineOf(segment);
+		if (lineId < 0) return -1;
+
+		for (int run : _runsOfLine.get(lineId))
+		{
+			int i = indexOf(run, segment.getPoint1());
+			if (i < 0) continue;
+
+			int j = indexOf(run, segment.getPoint2());
+			if (j < 0 || i == j) continue;
+
+			return pack(run, Math.min(i, j), Math.max(i, j));
+		}
+
+		return -1;
+	}
+
+	/*
+	 * @return the index of the point in the run; -1 if not found
+	 */
+	private int indexOf(int run, Point point)
+	{
+		Point[] points = _runs.get(run);
+		double[] positions = _positions.get(run);
+
+		double position = positionAlong(_spans.get(run), point);
+
+		// The first point at or beyond (position - tolerance)
+		int lo = 0, hi = positions.length;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (positions[mid] < position - MathUtilities.EPSILON) lo = mid + 1;
+			else hi = mid;
+		}
+
+		for (int k = lo; k < positions.length && positions[k] <= position + MathUtilities.EPSILON; k++)
+		{
+			if (points[k].equals(point)) return k;
+		}
+
+		return -1;
+	}
+
+	//
+	// A subsegment (run, i, j) packed into a non-negative long: 22 bits for each index
+	// and the remaining 19 (below the sign bit) for the run; addRun enforces the limits
+	//
+	private static final int INDEX_BITS = 22;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+	public static final int MAX_RUN_LENGTH = 1 << INDEX_BITS;
+	public static final int MAX_RUNS = 1 << (Long.SIZE - 1 - 2 * INDEX_BITS);
+
+	private static long pack(int run, int i, int j) { return ((long)run << (2 * INDEX_BITS)) | ((long)i << INDEX_BITS) | j; }
+	private static int run(long key) { return (int)(key >>> (2 * INDEX_BITS)); }
+	private static int first(long key) { return (int)((key >>> INDEX_BITS) & INDEX_MASK); }
+	private static int second(long key) { return (int)(key & INDEX_MASK); }
+
+	private Segment materialize(long key)
+	{
+		Point[] points = _runs.get(run(key));
+
+		return new Segment(points[first(key)], points[second(key)]);
+	}
+
+	/**
+	 * @return the number of segments, clamped to Integer.MAX_VALUE (see longSize())
+	 */
+	@Override
+	public int size() { return (int)Math.min(_size, Integer.MAX_VALUE); }
+
+	/**
+	 * @return the number of segments
+	 */
+	public long longSize() { return _size; }
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		if (!(key instanceof Segment)) return false;
+
+		long packed = locate((Segment)key);
+		if (packed >= 0 && !_removed.contains(packed)) return true;
+
+		return _explicit.containsKey(key);
+	}
+
+	/**
+	 * @return a segment equal to the key (constructed on demand for a subsegment of a run)
+	 */
+	@Override
+	public Segment get(Object key)
+	{
+		if (!(key instanceof Segment)) return null;
+
+		long packed = locate((Segment)key);
+		if (packed >= 0 && !_removed.contains(packed)) return materialize(packed);
+
+		return _explicit.get(key);
+	}
+
+	@Override
+	public Segment put(Segment key, Segment value)
+	{
+		long packed = locate(key);
+		if (packed >= 0)
+		{
+			if (!_removed.remove(packed)) return materialize(packed);
+
+			_size++;
+			return null;
+		}
+
+		Segment previous = _explicit.put(key, value);
+		if (previous == null) _size++;
+
+		return previous;
+	}
+
+	@Override
+	public Segment remove(Object key)
+	{
+		if (!(key instanceof Segment)) return null;
+
+		long packed = locate((Segment)key);
+		if (packed >= 0)
+		{
+			if (!_removed.add(packed)) return null;
+
+			_size--;
+			return materialize(packed);
+		}
+
+		Segment previous = _explicit.remove(key);
+		if (previous != null) _size--;
+
+		return previous;
+	}
+
+	@Override
+	public void clear()
+	{
+		_runs.clear();
+		_spans.clear();
+		_positions.clear();
+		_lines = new CollinearLineBuckets();
+		_runsOfLine.clear();
+		_removed.clear();
+		_explicit.clear();
+		_size = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<Segment, Segment>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<Segment, Segment>>()
+		{
+			@Override
+			public int size() { return SegmentStore.this.size(); }
+
+			@Override
+			public boolean contains(Object o)
+			{
+				if (!(o instanceof Map.Entry)) return false;
+
+				Object key = ((Map.Entry<?, ?>)o).getKey();
+
+				return containsKey(key) && get(key).equals(((Map.Entry<?, ?>)o).getValue());
+			}
+
+			@Override
+			public Iterator<Map.Entry<Segment, Segment>> iterator() { return new EntryIterator(); }
+		};
+	}
+
+	/**
+	 * Iterates the subsegments of each run in (run, i, j) order, then the explicit segments.
+	 * Removal through the iterator is not supported.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<Segment, Segment>>
+	{
+		private int _run = 0, _i = 0, _j = 0;
+		private final Iterator<Segment> _explicitIterator = _explicit.keySet().iterator();
+		private Segment _next;
+
+		private EntryIterator() { advance(); }
+
+		/*
+		 * Move to the next subsegment (run, i, j) not removed; then to the explicit segments.
+		 */
+		private void advance()
+		{
+			_next = null;
+
+			while (_run < _runs.size())
+			{
+				int length = _runs.get(_run).length;
+
+				if (++_j >= length)
+				{
+					if (++_i >= length - 1)
+					{
+						_run++;
+						_i = 0;
+					}
+					_j = _i + 1;
+					if (_run >= _runs.size()) break;
+				}
+
+				long packed = pack(_run, _i, _j);
+				if (!_removed.contains(packed))
+				{
+					_next = materialize(packed);
+					return;
+				}
+			}
+
+			if (_explicitIterator.hasNext()) _next = _explicitIterator.next();
+		}
+
+		@Override
+		public boolean hasNext() { return _next != null; }
+
+		@Override
+		public Map.Entry<Segment, Segment> next()
+		{
+			if (_next == null) throw new NoSuchElementException();
+
+			Segment segment = _next;
+			advance();
+
+			return new SimpleImmutableEntry<Segment, Segment>(segment, segment);
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import utilities.math.MathUtilities;
+
+/**
+ * A Bentley-Ottmann sweep for locating the pairs of segments that cross.
+ *
+ * The sweep line moves left to right (lexicographically: x first, y second)
+ * over the endpoints of the segments and the crossing points as they are
+ * discovered. The status structure holds the segments stabbed by the sweep
+ * line ordered bottom to top; only segments that become neighbors in the
+ * status are tested for crossing. The entire sweep runs in O((n + k) log n)
+ * time for n segments and k crossings.
+ *
+ * The sweep only identifies candidate pairs; the caller confirms each pair
+ * with the exact <Segment, Segment> intersection.
+ */
+public class SweepLineIntersector
+{
+	/**
+	 * A segment oriented left to right along with the index of the
+	 * given segment it came from.
+	 */
+	private static class SweepSegment
+	{
+		private final int _index;
+		private final double _x1, _y1, _x2, _y2;
+		private final double _slope;
+		private final boolean _vertical;
+
+		private SweepSegment(int index, Point left, Point right)
+		{
+			_index = index;
+			_x1 = left.getX();
+			_y1 = left.getY();
+			_x2 = right.getX();
+			_y2 = right.getY();
+			_vertical = MathUtilities.doubleEquals(_x1, _x2);
+			_slope = _vertical ? Double.POSITIVE_INFINITY : (_y2 - _y1) / (_x2 - _x1);
+		}
+
+		/*
+		 * @return the y-coordinate at which the sweep line (at x = @sx) meets this segment;
+		 *         a vertical segment is met at the sweep position @sy (clamped to the segment)
+		 */
+		private double yAt(double sx, double sy)
+		{
+			if (_vertical) return Math.max(_y1, Math.min(_y2, sy));
+
+			if (sx <= _x1) return _y1;
+			if (sx >= _x2) return _y2;
+
+			return _y1 + (sx - _x1) * _slope;
+		}
+
+		protected boolean isProbe() { return false; }
+
+		private boolean endsAt(Point p)
+		{
+			return MathUtilities.doubleEquals(_x2, p.getX()) && MathUtilities.doubleEquals(_y2, p.getY());
+		}
+	}
+
+	/**
+	 * A zero-length marker used to locate a y-coordinate in the status structure;
+	 * it orders before every segment met by the sweep line at that same y-coordinate.
+	 */
+	private static class Probe extends SweepSegment
+	{
+		private Probe(double x, double y) { super(-1, new Point(x, y), new Point(x, y)); }
+
+		@Override
+		protected boolean isProbe() { return true; }
+	}
+
+	//
+	// Sweep state: the position of the sweep line and whether the
+	// segments through the current event are ordered as they were before
+	// the event (false) or as they will be after the event (true).
+	//
+	private double _sweepX;
+	private double _sweepY;
+	private boolean _afterEvent;
+
+	private final TreeMap<Point, List<SweepSegment>> _events;
+	private final TreeSet<SweepSegment> _status;
+
+	private final CandidatePairs _pairs;
+
+	private SweepLineIntersector()
+	{
+		_events = new TreeMap<Point, List<SweepSegment>>(SweepLineIntersector::compareEvents);
+		_status = new TreeSet<SweepSegment>(this::compareStatus);
+		_pairs = new CandidatePairs();
+	}
+
+	/**
+	 * @param segments -- a list of segments
+	 * @return the distinct pairs (i, j), i < j, of segments that may cross; packed
+	 *         and sorted in (i, j) order as in CandidatePairs
+	 */
+	public static long[] candidatePairs(List<Segment> segments)
+	{
+		SweepLineIntersector sweep = new SweepLineIntersector();
+
+		sweep.initialize(segments);
+
+		while (!sweep._events.isEmpty())
+		{
+			Map.Entry<Point, List<SweepSegment>> event = sweep._events.pollFirstEntry();
+			sweep.handleEvent(event.getKey(), event.getValue());
+		}
+
+		return sweep._pairs.toSortedArray();
+	}
+
+	/*
+	 * Seed the event queue with the endpoints of every (non-degenerate) segment.
+	 */
+	private void initialize(List<Segment> segments)
+	{
+		for (int i = 0; i < segments.size(); i++)
+		{
+			Point p1 = segments.get(i).getPoint1();
+			Point p2 = segments.get(i).getPoint2();
+
+			if (p1.equals(p2)) continue;
+
+			Point left = Point.LexicographicOrdering(p1, p2) <= 0 ? p1 : p2;
+			Point right = left == p1 ? p2 : p1;
+
+			_events.computeIfAbsent(left, (k) -> new ArrayList<SweepSegment>()).add(new SweepSegment(i, left, right));
+			_events.computeIfAbsent(right, (k) -> new ArrayList<SweepSegment>());
+		}
+	}
+
+	/*
+	 * Process a single event point: report the segments crossing there,
+	 * remove the segments ending there, and reorder the segments passing through.
+	 */
+	private void handleEvent(Point p, List<SweepSegment> upper)
+	{
+		_sweepX = p.getX();
+		_sweepY = p.getY();
+		_afterEvent = false;
+
+		// Collect the segments in the status that pass through (or end at) p
+		List<SweepSegment> lower = new ArrayList<SweepSegment>();
+		List<SweepSegment> contain = new ArrayList<SweepSegment>();
+		for (SweepSegment s : _status.tailSet(new Probe(_sweepX, _sweepY), true))
+		{
+			if (!MathUtilities.doubleEquals(s.yAt(_sweepX, _sweepY), _sweepY)) break;
+
+			if (s.endsAt(p)) lower.add(s);
+			else contain.add(s);
+		}
+
+		// Segments meeting only at shared endpoints cannot cross; all others are candidates
+		for (int i = 0; i < contain.size(); i++)
+		{
+			for (int j = i + 1; j < contain.size(); j++) addPair(contain.get(i), contain.get(j));
+			for (SweepSegment s : upper) addPair(contain.get(i), s);
+			for (SweepSegment s : lower) addPair(contain.get(i), s);
+		}
+
+		// Remove using the ordering prior to the event; reinsert with the ordering after
+		for (SweepSegment s : lower) remove(s);
+		for (SweepSegment s : contain) remove(s);
+
+		_afterEvent = true;
+		_status.addAll(upper);
+		_status.addAll(contain);
+
+		if (upper.isEmpty() && contain.isEmpty())
+		{
+			Probe probe = new Probe(_sweepX, _sweepY);
+			checkNeighbors(_status.lower(probe), _status.ceiling(probe), p);
+			return;
+		}
+
+		List<SweepSegment> through = new ArrayList<SweepSegment>(upper);
+		through.addAll(contain);
+		through.sort(_status.comparator());
+
+		SweepSegment lowest = through.get(0);
+		SweepSegment highest = through.get(through.size() - 1);
+
+		checkNeighbors(_status.lower(lowest), lowest, p);
+		checkNeighbors(highest, _status.higher(highest), p);
+	}
+
+	/*
+	 * Remove a segment from the status structure; if floating-point drift has
+	 * disturbed the ordering, fall back on a linear search.
+	 */
+	private void remove(SweepSegment s)
+	{
+		if (!_status.remove(s)) _status.removeIf((other) -> other == s);
+	}
+
+	/*
+	 * If the two (neighboring) segments cross to the right of the current event, schedule that crossing.
+	 */
+	private void checkNeighbors(SweepSegment below, SweepSegment above, Point p)
+	{
+		if (below == null || above == null) return;
+
+		Point crossing = crossing(below, above);
+
+		if (crossing != null && compareEvents(crossing, p) > 0)
+		{
+			_events.computeIfAbsent(crossing, (k) -> new ArrayList<SweepSegment>());
+		}
+	}
+
+	/*
+	 * @return the point at which the two segments cross; null if parallel or non-crossing
+	 */
+	private static Point crossing(SweepSegment a, SweepSegment b)
+	{
+		double rx = a._x2 - a._x1, ry = a._y2 - a._y1;
+		double sx = b._x2 - b._x1, sy = b._y2 - b._y1;
+
+		double denom = rx * sy - ry * sx;
+		if (denom == 0) return null;
+
+		double qx = b._x1 - a._x1, qy = b._y1 - a._y1;
+		double t = (qx * sy - qy * sx) / denom;
+		double u = (qx * ry - qy * rx) / denom;
+
+		if (t < -MathUtilities.EPSILON || t > 1 + MathUtilities.EPSILON) return null;
+		if (u < -MathUtilities.EPSILON || u > 1 + MathUtilities.EPSILON) return null;
+
+		return new Point(a._x1 + t * rx, a._y1 + t * ry);
+	}
+
+	/*
+	 * Event points are ordered lexicographically (within epsilon) so that
+	 * coinciding endpoints and crossings constitute a single event.
+	 */
+	private static int compareEvents(Point p1, Point p2)
+	{
+		if (!MathUtilities.doubleEquals(p1.getX(), p2.getX())) return Double.compare(p1.getX(), p2.getX());
+		if (!MathUtilities.doubleEquals(p1.getY(), p2.getY())) return Double.compare(p1.getY(), p2.getY());
+		return 0;
+	}
+
+	/*
+	 * Order segments bottom to top where they meet the sweep line.
+	 *
+	 * Segments meeting the sweep line at the same point are ordered by slope:
+	 *    * above the current event (a future crossing) in their order before crossing
+	 *    * below the current event (a past crossing) in their order after crossing
+	 *    * at the current event by the phase of the event
+	 * Ties that remain are overlapping, collinear segments; the index breaks the tie.
+	 */
+	private int compareStatus(SweepSegment a, SweepSegment b)
+	{
+		if (a == b) return 0;
+
+		double ya = a.yAt(_sweepX, _sweepY);
+		double yb = b.yAt(_sweepX, _sweepY);
+
+		if (!MathUtilities.doubleEquals(ya, yb)) return Double.compare(ya, yb);
+
+		if (a.isProbe()) return -1;
+		if (b.isProbe()) return 1;
+
+		boolean after = MathUtilities.doubleEquals(ya, _sweepY) ? _afterEvent : ya < _sweepY;
+
+		int bySlope = Double.compare(a._slope, b._slope);
+		if (bySlope != 0) return after ? bySlope : -bySlope;
+
+		return Integer.compare(a._index, b._index);
+	}
+
+	private void addPair(SweepSegment a, SweepSegment b)
+	{
+		_pairs.add(a._index, b._index);
+	}
+}
@@ -0,0 +1,236 @@
+package preprocessor.delegates;
+
+import java.util.List;
+
+import geometry_objects.Segment;
+import utilities.math.MathUtilities;
+
+/**
+ * A spatial hashing broad phase for <Segment, Segment> intersection.
+ *
+ * The bounding box of the figure is divided into a uniform grid of square cells
+ * and each segment is bucketed into every cell it passes through. Two segments
+ * can only intersect if they share a cell; only those pairs are candidates for
+ * the exact intersection test.
+ *
+ * The default cell size yields roughly one cell per segment; for tuning, the cell
+ * size may be given explicitly and the candidate count / rejection rate inspected.
+ */
+public class UniformGridBroadPhase
+{
+	// Bound on the grid dimensions regardless of the requested cell size
+	public static final int MAX_CELLS_PER_SIDE = 4096;
+
+	protected List<Segment> _segments;
+
+	// Grid geometry: origin (lower-left corner of the figure), cell size, and dimensions
+	protected double _minX, _minY;
+	protected double _cellSize;
+	protected int _columns, _rows;
+
+	// Segment indices bucketed by cell (compressed rows): cell c holds
+	// _cellSegments[_cellStart[c]] .. _cellSegments[_cellStart[c + 1] - 1]
+	protected int[] _cellStart;
+	protected int[] _cellSegments;
+
+	protected long[] _candidates;
+
+	public double getCellSize() { return _cellSize; }
+	public int getColumns() { return _columns; }
+	public int getRows() { return _rows; }
+
+	/**
+	 * Bucket the segments with a cell size derived from the figure's bounding box.
+	 */
+	public UniformGridBroadPhase(List<Segment> segments)
+	{
+		this(segments, Double.NaN);
+	}
+
+	/**
+	 * @param segments -- the given segments
+	 * @param cellSize -- the side length of each (square) cell; NaN or a non-positive
+	 *                    value implies a size derived from the figure's bounding box
+	 */
+	public UniformGridBroadPhase(List<Segment> segments, double cellSize)
+	{
+		_segments = segments;
+
+		initializeGrid(cellSize);
+
+		bucketSegments();
+
+		_candidates = collectCandidates();
+	}
+
+	/**
+	 * @return the distinct pairs (i, j), i < j, of segments sharing at least one cell;
+	 *         packed and sorted in (i, j) order as in CandidatePairs
+	 */
+	public long[] candidatePairs() { return _candidates; }
+
+	/**
+	 * @return the number of pairs that reach the exact intersection test
+	 */
+	public int numCandidatePairs() { return _candidates.length; }
+
+	/**
+	 * @return the number of pairs an exhaustive (pairwise) check would test
+	 */
+	public long numTotalPairs()
+	{
+		long n = _segments.size();
+		return n * (n - 1) / 2;
+	}
+
+	/**
+	 * @return the fraction of all pairs rejected by the broad phase (0 for fewer than 2 segments)
+	 */
+	public double rejectionRate()
+	{
+		long total = numTotalPairs();
+		if (total == 0) return 0;
+
+		return 1.0 - (double)numCandidatePairs() / total;
+	}
+
+	/*
+	 * Determine the bounding box of the figure and the grid dimensions.
+	 */
+	private void initializeGrid(double cellSize)
+	{
+		_minX = Double.POSITIVE_INFINITY;
+		_minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (Segment segment : _segments)
+		{
+			_minX = Math.min(_minX, Math.min(segment.getPoint1().getX(), segment.getPoint2().getX()));
+			_minY = Math.min(_minY, Math.min(segment.getPoint1().getY(), segment.getPoint2().getY()));
+			maxX = Math.max(maxX, Math.max(segment.getPoint1().getX(), segment.getPoint2().getX()));
+			maxY = Math.max(maxY, Math.max(segment.getPoint1().getY(), segment.getPoint2().getY()));
+		}
+
+		if (_segments.isEmpty())
+		{
+			_minX = _minY = maxX = maxY = 0;
+		}
+
+		double extent = Math.max(maxX - _minX, maxY - _minY);
+
+		// Default: about one cell per segment
+		if (Double.isNaN(cellSize) || cellSize <= 0)
+		{
+			cellSize = extent / Math.max(1, Math.ceil(Math.sqrt(_segments.size())));
+		}
+
+		_cellSize = Math.max(Math.max(cellSize, extent / MAX_CELLS_PER_SIDE), MathUtilities.EPSILON);
+		_columns = (int)Math.floor((maxX - _minX) / _cellSize) + 1;
+		_rows = (int)Math.floor((maxY - _minY) / _cellSize) + 1;
+	}
+
+	/*
+	 * Bucket the segments into cells in two passes: count, then fill.
+	 */
+	private void bucketSegments()
+	{
+		int numCells = _columns * _rows;
+
+		_cellStart = new int[numCells + 1];
+		for (int i = 0; i < _segments.size(); i++) visitCells(i, null);
+
+		// Prefix sums; _cellStart[c + 1] is the end of cell c
+		for (int c = 0; c < numCells; c++) _cellStart[c + 1] += _cellStart[c];
+
+		_cellSegments = new int[_cellStart[numCells]];
+
+		int[] fill = new int[numCells];
+		System.arraycopy(_cellStart, 0, fill, 0, numCells);
+		for (int i = 0; i < _segments.size(); i++) visitCells(i, fill);
+	}
+
+	/*
+	 * Visit each cell the segment passes through (conservatively, within epsilon):
+	 *    fill == null -- count the segment in each cell
+	 *    otherwise    -- write the segment index into each cell
+	 *
+	 * The segment is split by column; within a column the cells spanned are those
+	 * covering the y-range of the segment restricted to that column.
+	 */
+	private void visitCells(int index, int[] fill)
+	{
+		Segment segment = _segments.get(index);
+
+		double x1 = segment.getPoint1().getX(), y1 = segment.getPoint1().getY();
+		double x2 = segment.getPoint2().getX(), y2 = segment.getPoint2().getY();
+		if (x2 < x1)
+		{
+			double t = x1; x1 = x2; x2 = t;
+			t = y1; y1 = y2; y2 = t;
+		}
+
+		int firstColumn = column(x1 - MathUtilities.EPSILON);
+		int lastColumn = column(x2 + MathUtilities.EPSILON);
+
+		for (int col = firstColumn; col <= lastColumn; col++)
+		{
+			// The portion of the segment within this column
+			double left = Math.max(x1, _minX + col * _cellSize);
+			double right = Math.min(x2, _minX + (col + 1) * _cellSize);
+
+			// A vertical segment spans its entire y-range within its column(s)
+			boolean vertical = x2 - x1 < MathUtilities.EPSILON;
+			double yLeft = vertical ? y1 : yAt(x1, y1, x2, y2, left);
+			double yRight = vertical ? y2 : yAt(x1, y1, x2, y2, right);
+
+			int firstRow = row(Math.min(yLeft, yRight) - MathUtilities.EPSILON);
+			int lastRow = row(Math.max(yLeft, yRight) + MathUtilities.EPSILON);
+
+			for (int r = firstRow; r <= lastRow; r++)
+			{
+				int cell = col * _rows + r;
+				if (fill == null) _cellStart[cell + 1]++;
+				else _cellSegments[fill[cell]++] = index;
+			}
+		}
+	}
+
+	private static double yAt(double x1, double y1, double x2, double y2, double x)
+	{
+		return y1 + (x - x1) * (y2 - y1) / (x2 - x1);
+	}
+
+	private int column(double x) { return clamp((int)Math.floor((x - _minX) / _cellSize), _columns); }
+	private int row(double y) { return clamp((int)Math.floor((y - _minY) / _cellSize), _rows); }
+	private static int clamp(int value, int size) { return Math.max(0, Math.min(size - 1, value)); }
+
+	/*
+	 * @return all pairs of segments sharing a cell
+	 */
+	private long[] collectCandidates()
+	{
+		CandidatePairs pairs = new CandidatePairs();
+
+		for (int c = 0; c + 1 < _cellStart.length; c++)
+		{
+			for (int a = _cellStart[c]; a < _cellStart[c + 1]; a++)
+			{
+				for (int b = a + 1; b < _cellStart[c + 1]; b++)
+				{
+					pairs.add(_cellSegments[a], _cellSegments[b]);
+				}
+			}
+		}
+
+		return pairs.toSortedArray();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "UniformGridBroadPhase(" + _columns + "x" + _rows + " cells of size " + _cellSize +
+		       ": " + numCandidatePairs() + " of " + numTotalPairs() + " pairs are candidates; " +
+		       String.format("%1$.3f", rejectionRate()) + " rejected)";
+	}
+}
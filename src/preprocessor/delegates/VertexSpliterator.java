@@ -0,0 +1,86 @@
+package preprocessor.delegates;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A splittable enumeration of the objects found at each of a range of vertices [lo, hi).
+ *
+ * The objects of a vertex are produced on demand, one vertex at a time; splitting hands
+ * the upper half of the remaining vertices to a new spliterator. The objects found at
+ * distinct vertices must be distinct (e.g. triangles by lowest vertex, angles by vertex).
+ */
+public class VertexSpliterator<T> implements Spliterator<T>
+{
+	/**
+	 * Produces the objects found at a single vertex.
+	 */
+	public interface VertexEnumerator<T>
+	{
+		void enumerate(int vertex, Consumer<? super T> action);
+	}
+
+	protected VertexEnumerator<T> _enumerator;
+	protected int _lo; // The next vertex to enumerate
+	protected int _hi;
+
+	// Objects of the last vertex enumerated, not yet consumed
+	protected ArrayDeque<T> _buffer;
+
+	public VertexSpliterator(VertexEnumerator<T> enumerator, int lo, int hi)
+	{
+		_enumerator = enumerator;
+		_lo = lo;
+		_hi = hi;
+		_buffer = new ArrayDeque<T>();
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action)
+	{
+		while (_buffer.isEmpty())
+		{
+			if (_lo >= _hi) return false;
+
+			_enumerator.enumerate(_lo++, _buffer::add);
+		}
+
+		action.accept(_buffer.poll());
+
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action)
+	{
+		while (!_buffer.isEmpty()) action.accept(_buffer.poll());
+
+		for (; _lo < _hi; _lo++) _enumerator.enumerate(_lo, action);
+	}
+
+	/*
+	 * Split off the upper half of the vertices not yet enumerated.
+	 */
+	@Override
+	public Spliterator<T> trySplit()
+	{
+		if (_hi - _lo < 2) return null;
+
+		int mid = (_lo + _hi) >>> 1;
+
+		Spliterator<T> upper = new VertexSpliterator<T>(_enumerator, mid, _hi);
+		_hi = mid;
+
+		return upper;
+	}
+
+	/*
+	 * The number of objects is not known in advance: estimate one per remaining vertex.
+	 */
+	@Override
+	public long estimateSize() { return _buffer.size() + (_hi - _lo); }
+
+	@Override
+	public int characteristics() { return DISTINCT | NONNULL | IMMUTABLE; }
+}
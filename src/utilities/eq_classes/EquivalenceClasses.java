@@ -56,7 +56,7 @@ public class EquivalenceClasses<T> {
 	 * @param element
 	 * @return index of class the element belongs to or -1 if not found
 	 */
-	private int indexOfClassBelongs(T element) {
+	protected int indexOfClassBelongs(T element) {
 		for(int i=0; i<_classes.size(); i++) {
 			if (_classes.get(i).belongs(element)) {
 				return i;
@@ -27,9 +27,64 @@ public class GeometryUtilities
 	 */
 	public static boolean between(Point M, Point A, Point B)
 	{
-		return MathUtilities.doubleEquals(GeometryUtilities.distance(A, M) +
-                                          GeometryUtilities.distance(M, B),
-                                          GeometryUtilities.distance(A, B));
+		return between(M, A, B, GeometryUtilities.distance(A, B));
+	}
+
+	/*
+	 * Equivalent to between(M, A, B) for a segment AB of known length; no square roots are taken.
+	 *
+	 * The condition d(A, M) + d(M, B) - d(A, B) < EPSILON describes the interior of an ellipse
+	 * with foci A and B. With L = d(A, B) and coordinates of M along (dot product) and
+	 * across (cross product) AB measured from its midpoint, M is inside when
+	 *
+	 *     dot^2 / a^2 + cross^2 / b^2 < L^2     where a = (L + EPSILON) / 2 and b^2 = a^2 - (L / 2)^2
+	 *
+	 * @param lengthAB -- the distance between A and B
+	 */
+	public static boolean between(Point M, Point A, Point B, double lengthAB)
+	{
+		return between(M.getX(), M.getY(), A, B, lengthAB);
+	}
+
+	/*
+	 * between(M, A, B, lengthAB) for M = (x, y)
+	 */
+	public static boolean between(double x, double y, Point A, Point B, double lengthAB)
+	{
+		double dx = B.getX() - A.getX();
+		double dy = B.getY() - A.getY();
+
+		// M relative to the midpoint of AB
+		double mx = x - (A.getX() + B.getX()) / 2;
+		double my = y - (A.getY() + B.getY()) / 2;
+
+		double along = dot(dx, dy, mx, my);
+		double across = cross(dx, dy, mx, my);
+
+		double eps = MathUtilities.EPSILON;
+		double aSquared = (lengthAB + eps) * (lengthAB + eps) / 4;
+		double bSquared = (2 * lengthAB * eps + eps * eps) / 4;
+
+		// A degenerate segment: M must be within EPSILON / 2 of A
+		if (lengthAB == 0) return mx * mx + my * my < bSquared;
+
+		return along * along * bSquared + across * across * aSquared < dot(dx, dy, dx, dy) * aSquared * bSquared;
+	}
+
+	/*
+	 * @return the dot product of vectors (x1, y1) and (x2, y2)
+	 */
+	public static double dot(double x1, double y1, double x2, double y2)
+	{
+		return x1 * x2 + y1 * y2;
+	}
+
+	/*
+	 * @return the (z-component of the) cross product of vectors (x1, y1) and (x2, y2)
+	 */
+	public static double cross(double x1, double y1, double x2, double y2)
+	{
+		return x1 * y2 - y1 * x2;
 	}
     
     /*
@@ -0,0 +1,68 @@
+package batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class BatchFigureProcessorTest
+{
+	@Test
+	void test_process() throws IOException, InterruptedException
+	{
+		StringWriter out = new StringWriter();
+
+		BatchFigureProcessor processor = new BatchFigureProcessor(2, BatchFigureProcessor.Threads.PLATFORM, 1);
+
+		int failures = processor.process(List.of(Path.of("crossing_symmetric_triangle.json"),
+		                                         Path.of("collinear_line_segments.json"),
+		                                         Path.of("does_not_exist.json")), out);
+		assertEquals(1, failures);
+
+		Map<String, JSONObject> results = new HashMap<String, JSONObject>();
+		for (String line : out.toString().split("\\R"))
+		{
+			JSONObject result = new JSONObject(line);
+			results.put(result.getString("file"), result);
+		}
+		assertEquals(3, results.size());
+
+		JSONObject crossing = results.get("crossing_symmetric_triangle.json");
+		assertFalse(crossing.has("error"));
+		assertEquals(5, crossing.getInt("points"));
+		assertEquals(1, crossing.getInt("implicitPoints"));
+		assertTrue(crossing.has("trianglesMs"));
+
+		JSONObject missing = results.get("does_not_exist.json");
+		assertTrue(missing.has("error"));
+		assertFalse(missing.has("triangles"));
+	}
+
+	@Test
+	void test_write_error()
+	{
+		Writer failing = new Writer()
+		{
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException { throw new IOException("closed"); }
+
+			@Override
+			public void flush() {}
+
+			@Override
+			public void close() {}
+		};
+
+		BatchFigureProcessor processor = new BatchFigureProcessor(1, BatchFigureProcessor.Threads.PLATFORM, 1);
+
+		assertThrows(IOException.class, () -> processor.process(List.of(Path.of("collinear_line_segments.json")), failing));
+	}
+}
@@ -0,0 +1,161 @@
+package geometry_objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.points.Point;
+
+class SegmentTest
+{
+	//
+	// A point lies on a segment AB of length L when d(A, M) + d(M, B) - L < EPSILON (1e-6):
+	//    beyond an endpoint, along the segment:   less than EPSILON / 2
+	//    beside an endpoint, across the segment:  less than (about) EPSILON
+	//    beside the midpoint, across the segment: less than sqrt(L * EPSILON / 2 + EPSILON^2 / 4)
+	//
+	private static final double DELTA = 1e-12;
+
+	/*
+	 * Assert the tolerance of a segment from (x1, y1) to (x2, y2) about both endpoints and the midpoint.
+	 */
+	private void assertTolerance(double x1, double y1, double x2, double y2)
+	{
+		Segment segment = new Segment(new Point(x1, y1), new Point(x2, y2));
+
+		double length = segment.length();
+		double dx = segment.directionX(), dy = segment.directionY();
+		double nx = segment.lineA(), ny = segment.lineB();
+
+		// Beyond each endpoint
+		assertTrue(segment.pointLiesOnSegment(new Point(x2 + 0.4e-6 * dx, y2 + 0.4e-6 * dy)));
+		assertFalse(segment.pointLiesOnSegment(new Point(x2 + 0.6e-6 * dx, y2 + 0.6e-6 * dy)));
+		assertTrue(segment.pointLiesOnSegment(new Point(x1 - 0.4e-6 * dx, y1 - 0.4e-6 * dy)));
+		assertFalse(segment.pointLiesOnSegment(new Point(x1 - 0.6e-6 * dx, y1 - 0.6e-6 * dy)));
+
+		// Beside each endpoint, on either side
+		assertTrue(segment.pointLiesOnSegment(new Point(x1 + 0.9e-6 * nx, y1 + 0.9e-6 * ny)));
+		assertFalse(segment.pointLiesOnSegment(new Point(x1 + 1.1e-6 * nx, y1 + 1.1e-6 * ny)));
+		assertTrue(segment.pointLiesOnSegment(new Point(x2 - 0.9e-6 * nx, y2 - 0.9e-6 * ny)));
+		assertFalse(segment.pointLiesOnSegment(new Point(x2 - 1.1e-6 * nx, y2 - 1.1e-6 * ny)));
+
+		// Beside the midpoint: the bounding box must be widened to enclose these
+		double across = Math.sqrt(length * 1e-6 / 2);
+		double mx = (x1 + x2) / 2, my = (y1 + y2) / 2;
+		Point inside = new Point(mx + 0.97 * across * nx, my + 0.97 * across * ny);
+		Point outside = new Point(mx - 1.03 * across * nx, my - 1.03 * across * ny);
+
+		assertTrue(segment.boundingBoxContains(inside));
+		assertTrue(segment.pointLiesOnSegment(inside));
+		assertTrue(segment.pointLiesBetweenEndpoints(inside));
+		assertFalse(segment.pointLiesOnSegment(outside));
+		assertFalse(segment.pointLiesBetweenEndpoints(outside));
+	}
+
+	@Test
+	void test_tolerance_horizontal()
+	{
+		assertTolerance(0, 1, 10, 1);
+		assertTolerance(10, 1, 0, 1);
+	}
+
+	@Test
+	void test_tolerance_vertical()
+	{
+		assertTolerance(2, 0, 2, 10);
+		assertTolerance(2, 10, 2, 0);
+	}
+
+	@Test
+	void test_tolerance_diagonal()
+	{
+		assertTolerance(0, 0, 6, 8);
+		assertTolerance(6, 8, 0, 0);
+	}
+
+	@Test
+	void test_zero_length()
+	{
+		Segment point = new Segment(new Point(1, 1), new Point(1, 1));
+
+		assertEquals(0, point.length(), DELTA);
+		assertEquals(0, point.directionX(), DELTA);
+		assertEquals(0, point.directionY(), DELTA);
+
+		// Within EPSILON / 2 of the point, in any direction
+		assertTrue(point.pointLiesOnSegment(new Point(1 + 0.4e-6, 1)));
+		assertTrue(point.pointLiesOnSegment(new Point(1, 1 - 0.4e-6)));
+		assertFalse(point.pointLiesOnSegment(new Point(1 + 0.6e-6, 1)));
+		assertFalse(point.pointLiesOnSegment(new Point(1 - 0.5e-6, 1 + 0.5e-6)));
+		assertFalse(point.pointLiesBetweenEndpoints(new Point(1, 1)));
+	}
+
+	@Test
+	void test_line_form()
+	{
+		// The unit normal has a canonical sign (a > 0, or a == 0 and b > 0) whatever the orientation
+		Segment right = new Segment(new Point(0, 1), new Point(5, 1));
+		Segment left = new Segment(new Point(5, 1), new Point(0, 1));
+		for (Segment horizontal : new Segment[] { right, left })
+		{
+			assertTrue(horizontal.isHorizontal());
+			assertFalse(horizontal.isVertical());
+			assertEquals(0, horizontal.lineA(), DELTA);
+			assertEquals(1, horizontal.lineB(), DELTA);
+			assertEquals(1, horizontal.lineC(), DELTA);
+		}
+		assertEquals(1, right.directionX(), DELTA);
+		assertEquals(-1, left.directionX(), DELTA);
+
+		Segment up = new Segment(new Point(2, 0), new Point(2, 5));
+		Segment down = new Segment(new Point(2, 5), new Point(2, 0));
+		for (Segment vertical : new Segment[] { up, down })
+		{
+			assertTrue(vertical.isVertical());
+			assertFalse(vertical.isHorizontal());
+			assertEquals(1, vertical.lineA(), DELTA);
+			assertEquals(0, vertical.lineB(), DELTA);
+			assertEquals(2, vertical.lineC(), DELTA);
+		}
+		assertEquals(1, up.directionY(), DELTA);
+		assertEquals(-1, down.directionY(), DELTA);
+
+		// y = 4x / 3 + 1: normal (0.8, -0.6), c = -0.6
+		Segment rising = new Segment(new Point(0, 1), new Point(6, 9));
+		Segment falling = new Segment(new Point(6, 9), new Point(0, 1));
+		for (Segment diagonal : new Segment[] { rising, falling })
+		{
+			assertEquals(0.8, diagonal.lineA(), DELTA);
+			assertEquals(-0.6, diagonal.lineB(), DELTA);
+			assertEquals(-0.6, diagonal.lineC(), DELTA);
+			assertEquals(1, diagonal.intercept(), DELTA);
+		}
+		assertEquals(0.6, rising.directionX(), DELTA);
+		assertEquals(0.8, rising.directionY(), DELTA);
+		assertEquals(-0.6, falling.directionX(), DELTA);
+
+		// y = -x + 4: normal (1, 1) / sqrt(2)
+		Segment descending = new Segment(new Point(0, 4), new Point(4, 0));
+		assertEquals(Math.sqrt(0.5), descending.lineA(), DELTA);
+		assertEquals(Math.sqrt(0.5), descending.lineB(), DELTA);
+		assertEquals(4 * Math.sqrt(0.5), descending.lineC(), DELTA);
+	}
+
+	@Test
+	void test_bounding_box()
+	{
+		Segment segment = new Segment(new Point(3, 4), new Point(0, 0));
+
+		assertEquals(0, segment.minX(), DELTA);
+		assertEquals(0, segment.minY(), DELTA);
+		assertEquals(3, segment.maxX(), DELTA);
+		assertEquals(4, segment.maxY(), DELTA);
+
+		assertTrue(segment.boundingBoxContains(3, 0));
+		assertFalse(segment.boundingBoxContains(3.001, 0));
+		assertFalse(segment.boundingBoxContains(-0.001, 2));
+
+		assertTrue(segment.boundingBoxOverlaps(new Segment(new Point(3, 0), new Point(5, -2))));
+		assertFalse(segment.boundingBoxOverlaps(new Segment(new Point(3.001, 0), new Point(5, -2))));
+	}
+}
@@ -0,0 +1,47 @@
+package geometry_objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+
+class TriangleTest
+{
+	@Test
+	void test_key()
+	{
+		PointDatabase db = new PointDatabase();
+
+		Point a = db.put("A", 0, 0);
+		Point b = db.put("B", 4, 0);
+		Point c = db.put("C", 0, 3);
+		Point d = db.put("D", 0, -3);
+
+		Triangle abc = Triangle.create(new Segment(a, b), new Segment(b, c), new Segment(c, a));
+		Triangle cab = Triangle.create(new Segment(c, a), new Segment(a, b), new Segment(b, c));
+		Triangle abd = Triangle.create(new Segment(a, b), new Segment(b, d), new Segment(d, a));
+
+		// The same sorted ids in any order of sides
+		assertEquals(abc.getKey(), cab.getKey());
+		assertEquals(abc, cab);
+		assertEquals(abc.hashCode(), cab.hashCode());
+
+		// The mirror image (in AB) is distinct
+		assertNotEquals(abc.getKey(), abd.getKey());
+		assertNotEquals(abc, abd);
+		assertNotEquals(abc.hashCode(), abd.hashCode());
+
+		// Points outside any database: no key, equal by vertices
+		Point a2 = new Point("A", 0, 0);
+		Point b2 = new Point("B", 4, 0);
+		Point c2 = new Point("C", 0, 3);
+		Triangle unkeyed = Triangle.create(new Segment(c2, b2), new Segment(a2, b2), new Segment(a2, c2));
+
+		assertEquals(Triangle.NO_KEY, unkeyed.getKey());
+		assertEquals(abc, unkeyed);
+		assertEquals(unkeyed, abc);
+		assertEquals(abc.hashCode(), unkeyed.hashCode());
+	}
+}
@@ -253,4 +253,42 @@ public class AngleEquivalenceClassesTest {
 			assertTrue(classes.contains(expected));
 		}
 	}
-}
\ No newline at end of file
+
+	//   C   E           H
+	//   |   |           |
+	//   A---B---D       F---G
+	//
+	// Right angles at A and at F: equal measures at different vertices are
+	// in different classes; the angles at A are in one class.
+	//
+	@Test
+	void test_classes_by_vertex_and_measure()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 0, 1);
+		Point d = new Point("D", 2, 0);
+		Point e = new Point("E", 0, 2);
+		Point f = new Point("F", 5, 0);
+		Point g = new Point("G", 6, 0);
+		Point h = new Point("H", 5, 1);
+
+		Angle bac = Angle.create(new Segment(a, b), new Segment(a, c));
+		Angle dae = Angle.create(new Segment(a, d), new Segment(a, e));
+		Angle bae = Angle.create(new Segment(a, b), new Segment(a, e));
+		Angle gfh = Angle.create(new Segment(f, g), new Segment(f, h));
+
+		AngleEquivalenceClasses classes = new AngleEquivalenceClasses();
+		assertTrue(classes.add(dae));
+		assertTrue(classes.add(gfh));
+		assertTrue(classes.add(bac));
+		assertTrue(classes.add(bae));
+		assertFalse(classes.add(bae));
+
+		assertEquals(2, classes.numClasses());
+		assertEquals(4, classes.size());
+		assertTrue(classes.contains(bac));
+		assertTrue(classes.contains(gfh));
+		assertFalse(classes.contains(Angle.create(new Segment(f, g), new Segment(f, new Point(5, 2)))));
+	}
+}
@@ -11,5 +11,30 @@ import geometry_objects.points.Point;
 
 class AngleTest {
 	
-	
+	//      C
+	//     /
+	//    /
+	//   A------B------D     E------F
+	@Test
+	void test_create()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 1, 1);
+		Point d = new Point("D", 2, 0);
+		Point e = new Point("E", 3, 0);
+		Point f = new Point("F", 4, 0);
+
+		Angle bac = Angle.create(new Segment(a, b), new Segment(a, c));
+		assertNotNull(bac);
+		assertEquals(45, bac.getMeasure(), 0.0001);
+		assertEquals(a, bac.getVertex());
+
+		// No shared vertex
+		assertNull(Angle.create(new Segment(a, b), new Segment(e, f)));
+
+		// Measure of zero: overlaying rays
+		assertNull(Angle.create(new Segment(a, b), new Segment(a, d)));
+		assertThrows(FactException.class, () -> new Angle(new Segment(a, b), new Segment(a, d)));
+	}
 }
\ No newline at end of file
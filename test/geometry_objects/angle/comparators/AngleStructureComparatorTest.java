@@ -196,4 +196,48 @@ class AngleStructureComparatorTest {
 		
 		assertEquals(Integer.MAX_VALUE, asc.compare(null, DAC));
 	}
+
+	@Test
+	void StructurallyComparableByDirectionTest() {
+		AngleStructureComparator asc = new AngleStructureComparator();
+		
+		//    G-------A-------B----C-----------D
+		//             \
+		//              E
+		//               \
+		//                F
+		//
+		// Directions from A: AB, AC, AD along line 0 (side 0), AG along line 0 (side 1),
+		//                    AE, AF along line 1 (side 0)
+		
+		Point A = new Point("A", 0, 0);
+		Point B = new Point("B", 2, 0);
+		Point D = new Point("D", 6, 0);
+		Point E = new Point("E", 1, -1);
+		Point F = new Point("F", 2, -2);
+		Point G = new Point("G", -2, 0);
+		
+		Segment AB = new Segment(A, B);
+		Segment AD = new Segment(A, D);
+		Segment AE = new Segment(A, E);
+		Segment AF = new Segment(A, F);
+		Segment AG = new Segment(A, G);
+		
+		Angle BAE = Angle.create(AB, AE, 0, 2);
+		Angle DAF = Angle.create(AD, AF, 0, 2);
+		Angle BAF = Angle.create(AB, AF, 0, 2);
+		Angle DAE = Angle.create(AD, AE, 0, 2);
+		
+		assertEquals(-1, asc.compare(BAE, DAF));
+		assertEquals(1, asc.compare(DAF, BAE));
+		assertEquals(0, asc.compare(BAF, DAE));
+		
+		// The same results as without directions
+		assertEquals(asc.compare(Angle.create(AB, AE), Angle.create(AD, AF)), asc.compare(BAE, DAF));
+		assertEquals(asc.compare(Angle.create(AB, AF), Angle.create(AD, AE)), asc.compare(BAF, DAE));
+		
+		// Collinear rays on opposite sides of the vertex
+		Angle GAE = Angle.create(AG, AE, 1, 2);
+		assertEquals(AngleStructureComparator.STRUCTURALLY_INCOMPARABLE, asc.compare(BAE, GAE));
+	}
 }
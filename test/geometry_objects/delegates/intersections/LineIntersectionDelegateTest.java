@@ -0,0 +1,120 @@
+package geometry_objects.delegates.intersections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+class LineIntersectionDelegateTest
+{
+	private static final double DELTA = 1e-12;
+
+	private static Segment segment(double x1, double y1, double x2, double y2)
+	{
+		return new Segment(new Point(x1, y1), new Point(x2, y2));
+	}
+
+	/*
+	 * Assert the status of <left, right> and <right, left> and, for a point, its coordinates.
+	 */
+	private void assertIntersection(int status, double x, double y, Segment left, Segment right)
+	{
+		for (Segment[] pair : new Segment[][] { { left, right }, { right, left } })
+		{
+			double[] out = new double[2];
+
+			assertEquals(status, LineIntersectionDelegate.intersection(pair[0], pair[1], out));
+
+			if (status == LineIntersectionDelegate.NO_INTERSECTION) continue;
+
+			assertEquals(x, out[0], DELTA);
+			assertEquals(y, out[1], DELTA);
+		}
+	}
+
+	@Test
+	void test_no_intersection()
+	{
+		// Collinear and apart
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(0, 0, 1, 0), segment(2, 0, 3, 0));
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(0, 0, 1, 1), segment(2, 2, 3, 3));
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(5, 0, 5, 1), segment(5, 3, 5, 2));
+
+		// Collinear and end to end: coincidence takes precedence over the shared vertex
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(0, 0, 1, 0), segment(1, 0, 3, 0));
+
+		assertNull(LineIntersectionDelegate.intersection(segment(0, 0, 1, 0), segment(2, 0, 3, 0)));
+	}
+
+	@Test
+	void test_shared_vertex()
+	{
+		assertIntersection(LineIntersectionDelegate.SHARED_VERTEX, 4, 0, segment(0, 0, 4, 0), segment(4, 0, 4, 3));
+		assertIntersection(LineIntersectionDelegate.SHARED_VERTEX, 1, 2, segment(1, 2, 5, 7), segment(-3, 0, 1, 2));
+	}
+
+	@Test
+	void test_intersection()
+	{
+		// Vertical x horizontal, including lines crossing beyond the segments
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 2, 1, segment(2, 0, 2, 4), segment(0, 1, 5, 1));
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 2, 7, segment(2, 0, 2, 4), segment(3, 7, 5, 7));
+
+		// Vertical or horizontal x general
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 1, 2, segment(1, -5, 1, 5), segment(0, 0, 2, 4));
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 1.5, 3, segment(-1, 3, 4, 3), segment(0, 0, 2, 4));
+
+		// General
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 2, 2, segment(0, 0, 4, 4), segment(0, 4, 4, 0));
+		assertIntersection(LineIntersectionDelegate.INTERSECTION, 3, 4.5, segment(0, 0, 2, 3), segment(0, 6, 1, 5.5));
+	}
+
+	@Test
+	void test_parallel()
+	{
+		// Distinct vertical or horizontal parallel lines 'cross' at non-finite coordinates
+		Segment[][] pairs = {
+			{ segment(0, 0, 1, 0), segment(0, 1, 1, 1) },
+			{ segment(0, 0, 0, 1), segment(1, 0, 1, 1) },
+		};
+
+		for (Segment[] pair : pairs)
+		{
+			double[] out = new double[2];
+
+			assertEquals(LineIntersectionDelegate.INTERSECTION, LineIntersectionDelegate.intersection(pair[0], pair[1], out));
+			assertFalse(Double.isFinite(out[0]) && Double.isFinite(out[1]));
+		}
+
+		// Other parallel lines compare as collinear (equal slopes) and so do not intersect
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(0, 0, 1, 1), segment(0, 1, 1, 2));
+		assertIntersection(LineIntersectionDelegate.NO_INTERSECTION, 0, 0, segment(0, 0, 2, 1), segment(5, 0, 7, 1));
+	}
+
+	@Test
+	void test_point_agrees()
+	{
+		Segment[][] pairs = {
+			{ segment(0, 0, 1, 0), segment(2, 0, 3, 0) },
+			{ segment(0, 0, 4, 0), segment(4, 0, 4, 3) },
+			{ segment(2, 0, 2, 4), segment(0, 1, 5, 1) },
+			{ segment(1, -5, 1, 5), segment(0, 0, 2, 4) },
+			{ segment(0, 0, 2, 3), segment(0, 6, 1, 5.5) },
+		};
+
+		for (Segment[] pair : pairs)
+		{
+			double[] out = new double[2];
+			int status = LineIntersectionDelegate.intersection(pair[0], pair[1], out);
+			Point point = LineIntersectionDelegate.intersection(pair[0], pair[1]);
+
+			assertEquals(status == LineIntersectionDelegate.NO_INTERSECTION, point == null);
+			if (point == null) continue;
+
+			assertEquals(out[0], point.getX(), DELTA);
+			assertEquals(out[1], point.getY(), DELTA);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package geometry_objects.delegates.intersections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+class SegmentIntersectionDelegateTest
+{
+	private static final double DELTA = 1e-12;
+
+	private static Segment segment(double x1, double y1, double x2, double y2)
+	{
+		return new Segment(new Point(x1, y1), new Point(x2, y2));
+	}
+
+	/*
+	 * Assert both overloads, in both orders, agree on whether and where @left and @right intersect.
+	 */
+	private void assertIntersection(boolean expected, double x, double y, Segment left, Segment right)
+	{
+		for (Segment[] pair : new Segment[][] { { left, right }, { right, left } })
+		{
+			double[] out = new double[2];
+			Point point = SegmentIntersectionDelegate.findIntersection(pair[0], pair[1]);
+
+			assertEquals(expected, SegmentIntersectionDelegate.findIntersection(pair[0], pair[1], out));
+			assertEquals(expected, point != null);
+
+			if (!expected) continue;
+
+			assertEquals(x, out[0], DELTA);
+			assertEquals(y, out[1], DELTA);
+			assertEquals(out[0], point.getX(), DELTA);
+			assertEquals(out[1], point.getY(), DELTA);
+		}
+	}
+
+	@Test
+	void test_find_intersection()
+	{
+		// Crossing strictly between the endpoints of both
+		assertIntersection(true, 2, 1, segment(2, 0, 2, 4), segment(0, 1, 5, 1));
+		assertIntersection(true, 2, 2, segment(0, 0, 4, 4), segment(0, 4, 4, 0));
+		assertIntersection(true, 1, 2, segment(1, -5, 1, 5), segment(0, 0, 2, 4));
+
+		// Lines crossing beyond one of the segments
+		assertIntersection(false, 0, 0, segment(0, 0, 1, 1), segment(3, 0, 0, 3));
+		assertIntersection(false, 0, 0, segment(2, 0, 2, 4), segment(3, 7, 5, 7));
+
+		// Touching at an endpoint of one or both
+		assertIntersection(false, 0, 0, segment(0, 0, 4, 0), segment(2, 0, 2, 3));
+		assertIntersection(false, 0, 0, segment(0, 0, 4, 0), segment(4, 0, 4, 3));
+
+		// Collinear, parallel, and apart
+		assertIntersection(false, 0, 0, segment(0, 0, 1, 0), segment(1, 0, 3, 0));
+		assertIntersection(false, 0, 0, segment(0, 0, 1, 1), segment(0, 1, 1, 2));
+		assertIntersection(false, 0, 0, segment(0, 0, 0, 1), segment(1, 0, 1, 1));
+		assertIntersection(false, 0, 0, segment(0, 0, 1, 1), segment(5, 0, 6, -1));
+	}
+}
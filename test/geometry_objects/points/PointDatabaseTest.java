@@ -0,0 +1,99 @@
+package geometry_objects.points;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import input.InputFacade;
+
+class PointDatabaseTest
+{
+	@Test
+	void test_ids()
+	{
+		PointDatabase db = new PointDatabase();
+
+		Point a = db.put("A", 0, 0);
+		Point b = db.put("B", 1, 0);
+		Point c = db.put("C", 0, 1);
+
+		assertEquals(0, a.getId());
+		assertEquals(1, b.getId());
+		assertEquals(2, c.getId());
+		assertTrue(a.isInterned());
+
+		// The existing entry is returned for known coordinates
+		assertSame(b, db.put("D", 1, 0));
+		assertSame(b, db.getPoint(1, 0));
+		assertSame(c, db.getPoint(2));
+		assertNull(db.getPoint(3));
+		assertEquals(3, db.size());
+
+		assertFalse(new Point("A", 0, 0).isInterned());
+		assertEquals(Point.NO_ID, new Point("A", 0, 0).getId());
+	}
+
+	@Test
+	void test_lattice_cell_boundary()
+	{
+		PointDatabase db = new PointDatabase();
+
+		// Equal points rounding to adjacent lattice cells
+		double below = 2.5e-6 - 1e-9;
+		double above = 2.5e-6 + 1e-9;
+		assertNotEquals(Point.cell(below, 1), Point.cell(above, 1));
+
+		Point a = db.put("A", below, 1);
+		assertSame(a, db.getPoint(above, 1));
+		assertSame(a, db.put("B", above, 1));
+		assertEquals(1, db.size());
+
+		// Unequal points in the same neighborhood remain distinct
+		Point c = db.put("C", below + 2e-6, 1);
+		assertNotSame(a, c);
+		assertNotEquals(a, c);
+		assertEquals(2, db.size());
+		assertTrue(db.getPoints().contains(new Point(above, 1)));
+	}
+
+	@Test
+	void test_implicit_points()
+	{
+		PointDatabase db = new PointDatabase();
+
+		Point a = db.put("A", 0, 0);
+		Point x = db.putImplicit("*_A", 1, 1);
+
+		assertEquals(1, x.getId());
+		assertTrue(x.isInternedWith(a));
+		assertTrue(db.isImplicit(x));
+		assertNull(db.getExplicitPoint(1, 1));
+		assertSame(a, db.getExplicitPoint(0, 0));
+
+		// An implicit point never displaces an entry; a given point at an implicit point is given
+		assertSame(a, db.putImplicit("*_B", 0, 0));
+		assertFalse(db.isImplicit(a));
+		assertSame(x, db.put("X", 1, 1));
+		assertFalse(db.isImplicit(x));
+		assertEquals(2, db.size());
+	}
+
+	@Test
+	void test_segments_share_database_points()
+	{
+		Map.Entry<PointDatabase, Set<Segment>> pair =
+				InputFacade.toGeometryRepresentation(InputFacade.extractFigure("crossing_symmetric_triangle.json"));
+
+		PointDatabase db = pair.getKey();
+		for (Segment segment : pair.getValue())
+		{
+			assertSame(db.getPoint(segment.getPoint1()), segment.getPoint1());
+			assertSame(db.getPoint(segment.getPoint2()), segment.getPoint2());
+			assertSame(segment.getPoint1(), db.getPoint(segment.getPoint1().getId()));
+		}
+	}
+}
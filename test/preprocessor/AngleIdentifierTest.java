@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
@@ -268,4 +269,36 @@ class AngleIdentifierTest
 			assertTrue(computedAngles.contains(expected));
 		}
 	}
+
+	@Test
+	void test_parallel()
+	{
+		for (String figure : List.of("crossing_symmetric_triangle.json", "collinear_line_segments.json"))
+		{
+			init(figure);
+
+			AngleEquivalenceClasses sequential = new AngleIdentifier(_segments).getAngles();
+			AngleEquivalenceClasses parallel = new AngleIdentifier(_segments).getAngles(new ForkJoinPool(4));
+
+			assertEquals(sequential.size(), parallel.size());
+			assertEquals(sequential.numClasses(), parallel.numClasses());
+			assertEquals(sequential.toString(), parallel.toString());
+		}
+	}
+
+	@Test
+	void test_stream()
+	{
+		for (String figure : List.of("crossing_symmetric_triangle.json", "collinear_line_segments.json"))
+		{
+			init(figure);
+
+			AngleEquivalenceClasses classes = new AngleIdentifier(_segments).getAngles();
+
+			List<Angle> angles = new AngleIdentifier(_segments).stream().parallel().toList();
+
+			assertEquals(classes.size(), angles.size());
+			for (Angle angle : angles) assertTrue(classes.contains(angle));
+		}
+	}
 }
@@ -0,0 +1,228 @@
+package preprocessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.Triangle;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+import input.InputFacade;
+import input.components.FigureNode;
+import preprocessor.PreprocessorStats.Stage;
+
+class PreprocessorTest
+{
+	protected PointDatabase _points;
+	protected Set<Segment> _segments;
+
+	protected void init(String filename)
+	{
+		FigureNode fig = InputFacade.extractFigure(filename);
+
+		Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation(fig);
+
+		_points = pair.getKey();
+		_segments = pair.getValue();
+	}
+
+	//      A                                 
+	//     / \                                
+	//    B___C                               
+	//   / \ / \                              
+	//  /   X   \  X is not a specified point (it is implied) 
+	// D_________E
+	//
+	// Without BE there is no implied point; adding BE introduces X and
+	// splits both BE and CD.
+	//
+	@Test
+	void test_add_remove_crossing_symmetric_triangle()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Segment be = new Segment(_points.getPoint("B"), _points.getPoint("E"));
+
+		Set<Segment> withoutBE = new LinkedHashSet<Segment>(_segments);
+		withoutBE.remove(be);
+
+		Preprocessor full = new Preprocessor(_points, new LinkedHashSet<Segment>(_segments));
+		Preprocessor incremental = new Preprocessor(_points, withoutBE);
+
+		// AB, AC, BC, BD, CD, CE, DE and AD, AE
+		assertEquals(9, incremental.getAllSegments().size());
+		assertEquals(2, incremental.getNonMinimalSegments().size());
+
+		FigureDelta added = incremental.addSegment(be);
+
+		assertEquals(1, added.getAddedImplicitPoints().size());
+		assertTrue(added.getAddedImplicitPoints().contains(new Point(3, 3)));
+
+		// CD is no longer minimal, but remains as a non-minimal segment
+		assertTrue(added.getRemovedSegments().isEmpty());
+		assertEquals(5, added.getAddedSegments().size());
+		assertTrue(added.getAddedSegments().contains(be));
+
+		assertEquals(full.getAllSegments().keySet(), incremental.getAllSegments().keySet());
+		assertEquals(4, incremental.getNonMinimalSegments().size());
+		assertEquals(full.getNonMinimalSegments(), incremental.getNonMinimalSegments());
+
+		FigureDelta removed = incremental.removeSegment(be);
+
+		assertEquals(added.getAddedImplicitPoints(), removed.getRemovedImplicitPoints());
+		assertEquals(added.getAddedSegments(), removed.getRemovedSegments());
+		assertTrue(removed.getAddedSegments().isEmpty());
+		assertEquals(9, incremental.getAllSegments().size());
+		assertEquals(2, incremental.getNonMinimalSegments().size());
+
+		// Segments that are not given cannot be removed
+		Segment ad = new Segment(_points.getPoint("A"), _points.getPoint("D"));
+		assertTrue(incremental.removeSegment(ad).isEmpty());
+	}
+
+	//  C   F
+	//  |   |
+	//  B   E
+	//  |   |
+	//  A   D
+	//
+	// Parallel (vertical) lines: each line yields its own non-minimal segment only
+	//
+	@Test
+	void test_parallel_vertical_lines()
+	{
+		_points = new PointDatabase();
+		_points.put("A", 0, 0);
+		_points.put("B", 0, 1);
+		_points.put("C", 0, 2);
+		_points.put("D", 1, 0);
+		_points.put("E", 1, 1);
+		_points.put("F", 1, 2);
+
+		_segments = new LinkedHashSet<Segment>();
+		_segments.add(new Segment(_points.getPoint("A"), _points.getPoint("B")));
+		_segments.add(new Segment(_points.getPoint("B"), _points.getPoint("C")));
+		_segments.add(new Segment(_points.getPoint("D"), _points.getPoint("E")));
+		_segments.add(new Segment(_points.getPoint("E"), _points.getPoint("F")));
+
+		Preprocessor pp = new Preprocessor(_points, _segments);
+
+		assertEquals(6, pp.getAllSegments().size());
+		assertTrue(pp.getAllSegments().containsKey(new Segment(_points.getPoint("A"), _points.getPoint("C"))));
+		assertTrue(pp.getAllSegments().containsKey(new Segment(_points.getPoint("D"), _points.getPoint("F"))));
+	}
+
+	//  H----B----C----D----G   (all on y = 1; H-D, B-G and G-H overlap the others)
+	//
+	// Segment C-D joins the group of B-C with that of H-D: B-D must be constructed
+	//
+	@Test
+	void test_overlapping_collinear_groups()
+	{
+		_points = new PointDatabase();
+		_points.put("H", 0, 1);
+		_points.put("B", 1, 1);
+		_points.put("C", 2, 1);
+		_points.put("D", 3, 1);
+		_points.put("G", 4, 1);
+
+		_segments = new LinkedHashSet<Segment>();
+		_segments.add(new Segment(_points.getPoint("H"), _points.getPoint("D")));
+		_segments.add(new Segment(_points.getPoint("B"), _points.getPoint("C")));
+		_segments.add(new Segment(_points.getPoint("C"), _points.getPoint("D")));
+		_segments.add(new Segment(_points.getPoint("D"), _points.getPoint("G")));
+		_segments.add(new Segment(_points.getPoint("B"), _points.getPoint("G")));
+		_segments.add(new Segment(_points.getPoint("G"), _points.getPoint("H")));
+
+		Preprocessor pp = new Preprocessor(_points, _segments);
+
+		assertTrue(pp.getAllSegments().containsKey(new Segment(_points.getPoint("B"), _points.getPoint("D"))));
+		assertTrue(pp.getAllSegments().containsKey(new Segment(_points.getPoint("C"), _points.getPoint("G"))));
+	}
+
+	@Test
+	void test_implicit_points_interned()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		int given = _points.size();
+
+		Preprocessor pp = new Preprocessor(_points, _segments);
+
+		// X is a database entry with the next id
+		assertEquals(1, pp.getImplicitPoints().size());
+		Point x = pp.getImplicitPoints().iterator().next();
+		assertSame(x, _points.getPoint(3, 3));
+		assertEquals(given, x.getId());
+		assertTrue(_points.isImplicit(x));
+		assertNull(_points.getExplicitPoint(x));
+		assertFalse(_points.isImplicit(_points.getPoint("A")));
+
+		// Every segment and triangle is built on database entries
+		for (Segment segment : pp.getAllSegments().keySet())
+		{
+			assertSame(segment.getPoint1(), _points.getPoint(segment.getPoint1().getId()));
+			assertSame(segment.getPoint2(), _points.getPoint(segment.getPoint2().getId()));
+		}
+		for (Triangle triangle : new TriangleIdentifier(pp.getAllSegments()).getTriangles())
+		{
+			assertNotEquals(Triangle.NO_KEY, triangle.getKey());
+		}
+
+		// A second analysis of the same database finds the same implicit point
+		assertEquals(pp.getImplicitPoints(), new Preprocessor(_points, _segments).getImplicitPoints());
+		assertEquals(given + 1, _points.size());
+	}
+
+	@Test
+	void test_stats_crossing_symmetric_triangle()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Preprocessor pp = new Preprocessor(_points, _segments);
+		pp.analyze();
+		PreprocessorStats stats = pp.getStats();
+
+		assertEquals(1, stats.get(Stage.IMPLICIT_POINTS).getCardinality());
+		assertEquals(4, stats.get(Stage.IMPLICIT_SEGMENTS).getCardinality());
+		assertEquals(10, stats.get(Stage.MINIMAL_SEGMENTS).getCardinality());
+		assertEquals(pp.getAllSegments().size(), stats.get(Stage.SEGMENT_DATABASE).getCardinality());
+
+		for (Stage stage : Stage.values())
+		{
+			assertTrue(stats.get(stage).getWallNanos() >= 0);
+		}
+		assertNotNull(stats.getSlowestStage());
+	}
+
+	@Test
+	void test_lazy_stages()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Preprocessor pp = new Preprocessor(_points, _segments);
+		assertNull(pp.getStats().get(Stage.IMPLICIT_POINTS));
+
+		// Only the implicit points are computed
+		assertEquals(1, pp.getImplicitPoints().size());
+		assertNotNull(pp.getStats().get(Stage.IMPLICIT_POINTS));
+		assertNull(pp.getStats().get(Stage.IMPLICIT_SEGMENTS));
+
+		// The minimal segments compute the implicit segments (but not the implicit points again)
+		PreprocessorStats.StageStats implicitPoints = pp.getStats().get(Stage.IMPLICIT_POINTS);
+		assertEquals(10, pp.getMinimalSegments().size());
+		assertSame(implicitPoints, pp.getStats().get(Stage.IMPLICIT_POINTS));
+		assertNotNull(pp.getStats().get(Stage.IMPLICIT_SEGMENTS));
+		assertNull(pp.getStats().get(Stage.SEGMENT_DATABASE));
+
+		// Non-minimal: AD, AE and BE, CD (split at X)
+		assertEquals(4, pp.getNonMinimalSegments().size());
+		assertEquals(14, pp.getAllSegments().size());
+		assertSame(pp.getAllSegments(), pp.getAllSegments());
+	}
+}
@@ -7,6 +7,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
@@ -157,4 +159,68 @@ class TriangleIdentifierTest
 
 		assertEquals(0, computedTriangles.size());
 	}
+
+	@Test
+	void test_modes_agree()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Set<Triangle> triples = new TriangleIdentifier(_segments, TriangleIdentifier.Mode.SEGMENT_TRIPLES).getTriangles();
+		Set<Triangle> forward = new TriangleIdentifier(_segments, TriangleIdentifier.Mode.FORWARD).getTriangles();
+		Set<Triangle> bitset = new TriangleIdentifier(_segments, TriangleIdentifier.Mode.BITSET).getTriangles();
+
+		assertEquals(12, forward.size());
+		assertEquals(triples, forward);
+		assertEquals(triples, bitset);
+	}
+
+	@Test
+	void test_parallel()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Set<Triangle> sequential = new TriangleIdentifier(_segments).getTriangles();
+
+		for (TriangleIdentifier.Mode mode : TriangleIdentifier.Mode.values())
+		{
+			assertEquals(sequential, new TriangleIdentifier(_segments, mode).getTriangles(new ForkJoinPool(4)));
+		}
+	}
+
+	@Test
+	void test_count_and_any()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		TriangleIdentifier triIdentifier = new TriangleIdentifier(_segments);
+
+		assertEquals(12, triIdentifier.countTriangles());
+
+		// A: ABC, ABE, ACD, ADE; B, C, D and E: 7 each; the implied point: 4
+		assertEquals(4, triIdentifier.countTrianglesAt(_points.getPoint("A")));
+		assertEquals(7, triIdentifier.countTrianglesAt(_points.getPoint("B")));
+		assertEquals(7, triIdentifier.countTrianglesAt(_points.getPoint("D")));
+		assertEquals(4, triIdentifier.countTrianglesAt(_points.getPoint(3, 3)));
+		assertEquals(0, triIdentifier.countTrianglesAt(new Point(100, 100)));
+
+		assertTrue(triIdentifier.anyTriangle(triangle -> triangle.has(_points.getPoint("A"))));
+		assertFalse(triIdentifier.anyTriangle(triangle -> triangle.has(new Point(100, 100))));
+
+		// Count and membership queries do not compute the set of triangles
+		assertNull(triIdentifier._triangles);
+
+		assertEquals(triIdentifier.getTriangles().size(), triIdentifier.countTriangles());
+	}
+
+	@Test
+	void test_stream()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Set<Triangle> triangles = new TriangleIdentifier(_segments).getTriangles();
+
+		assertEquals(triangles, new TriangleIdentifier(_segments).stream().collect(Collectors.toSet()));
+		assertEquals(12, new TriangleIdentifier(_segments).stream().parallel().count());
+		assertEquals(triangles, new TriangleIdentifier(_segments, TriangleIdentifier.Mode.BITSET).stream().parallel().collect(Collectors.toSet()));
+	}
 }
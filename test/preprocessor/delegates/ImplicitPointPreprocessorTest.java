@@ -0,0 +1,179 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+import input.InputFacade;
+import input.components.FigureNode;
+import preprocessor.delegates.ImplicitPointPreprocessor.Mode;
+
+class ImplicitPointPreprocessorTest
+{
+	protected PointDatabase _points;
+	protected List<Segment> _segments;
+
+	protected void init(String filename)
+	{
+		FigureNode fig = InputFacade.extractFigure(filename);
+
+		Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation(fig);
+
+		_points = pair.getKey();
+		_segments = new ArrayList<Segment>(pair.getValue());
+	}
+
+	/*
+	 * Each mode must produce the same points in the same order with the same names
+	 */
+	private void assertSameAsPairwise(Mode mode)
+	{
+		List<Point> expected = new ArrayList<Point>(ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE));
+		List<Point> actual = new ArrayList<Point>(ImplicitPointPreprocessor.compute(_points, _segments, mode));
+
+		assertEquals(expected, actual);
+		for (int i = 0; i < expected.size(); i++)
+		{
+			assertEquals(expected.get(i).getName(), actual.get(i).getName());
+		}
+	}
+
+	//      A                                 
+	//     / \                                
+	//    B___C                               
+	//   / \ / \                              
+	//  /   X   \  X is not a specified point (it is implied) 
+	// D_________E
+	//
+	@Test
+	void test_crossing_symmetric_triangle()
+	{
+		init("crossing_symmetric_triangle.json");
+
+		Set<Point> implicitPoints = ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE);
+
+		assertEquals(1, implicitPoints.size());
+		assertTrue(implicitPoints.contains(new Point(3, 3)));
+		assertEquals("*_A", implicitPoints.iterator().next().getName());
+
+		assertSameAsPairwise(Mode.SWEEP_LINE);
+		assertSameAsPairwise(Mode.UNIFORM_GRID);
+		assertSameAsPairwise(Mode.PARALLEL);
+	}
+
+	//  A----B-----C--D-----E----------F
+	//
+	@Test
+	void test_collinear_line_segments()
+	{
+		init("collinear_line_segments.json");
+
+		assertTrue(ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE).isEmpty());
+
+		assertSameAsPairwise(Mode.SWEEP_LINE);
+		assertSameAsPairwise(Mode.UNIFORM_GRID);
+		assertSameAsPairwise(Mode.PARALLEL);
+	}
+
+	//
+	// A lattice of n horizontal and n vertical segments: n^2 crossings
+	//
+	protected void initLattice(int n)
+	{
+		_points = new PointDatabase();
+		_segments = new ArrayList<Segment>();
+
+		for (int k = 1; k <= n; k++)
+		{
+			_points.put("H" + k, 0, k);
+			_points.put("I" + k, n + 1, k);
+			_points.put("V" + k, k, 0);
+			_points.put("W" + k, k, n + 1);
+
+			_segments.add(new Segment(_points.getPoint("H" + k), _points.getPoint("I" + k)));
+			_segments.add(new Segment(_points.getPoint("V" + k), _points.getPoint("W" + k)));
+		}
+	}
+
+	@Test
+	void test_lattice()
+	{
+		initLattice(4);
+
+		assertEquals(16, ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE).size());
+
+		assertSameAsPairwise(Mode.SWEEP_LINE);
+		assertSameAsPairwise(Mode.UNIFORM_GRID);
+		assertSameAsPairwise(Mode.PARALLEL);
+	}
+
+	@Test
+	void test_grid_statistics()
+	{
+		initLattice(4);
+
+		// A single cell: no pair is rejected
+		UniformGridBroadPhase coarse = new UniformGridBroadPhase(_segments, 10);
+		assertEquals(28, coarse.numTotalPairs());
+		assertEquals(28, coarse.numCandidatePairs());
+		assertEquals(0, coarse.rejectionRate(), 1e-9);
+
+		// Cells of size 0.5: parallel segments never share a cell
+		UniformGridBroadPhase fine = new UniformGridBroadPhase(_segments, 0.5);
+		assertEquals(16, fine.numCandidatePairs());
+		assertEquals(1 - 16.0 / 28, fine.rejectionRate(), 1e-9);
+
+		assertEquals(16, ImplicitPointPreprocessor.compute(_points, _segments, fine).size());
+	}
+
+	//
+	// Enough segments that the parallel algorithm splits the pairs into many blocks
+	//
+	@Test
+	void test_parallel_large_lattice()
+	{
+		initLattice(60);
+
+		assertEquals(3600, ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE).size());
+
+		assertSameAsPairwise(Mode.PARALLEL);
+		assertSameAsPairwise(Mode.SWEEP_LINE);
+
+		List<Point> expected = new ArrayList<Point>(ImplicitPointPreprocessor.compute(_points, _segments, Mode.PAIRWISE));
+		List<Point> actual = new ArrayList<Point>(ImplicitPointPreprocessor.compute(_points, _segments, new ForkJoinPool(3)));
+		assertEquals(expected.get(expected.size() - 1).getName(), actual.get(actual.size() - 1).getName());
+	}
+
+	@Test
+	void test_incidence()
+	{
+		initLattice(4);
+
+		SegmentIncidence incidence = ImplicitPointPreprocessor.computeIncidence(_points, _segments, Mode.PAIRWISE);
+
+		assertEquals(16, incidence.getImplicitPoints().size());
+		assertEquals(8, incidence.getSegments().size());
+
+		// Each horizontal segment H2-I2 is crossed by all 4 verticals, left to right
+		List<Point> points = incidence.getPoints(new Segment(_points.getPoint("H2"), _points.getPoint("I2")));
+		assertEquals(List.of(new Point(1, 2), new Point(2, 2), new Point(3, 2), new Point(4, 2)), points);
+
+		for (Mode mode : Mode.values())
+		{
+			assertEquals(points, ImplicitPointPreprocessor.computeIncidence(_points, _segments, mode)
+			                                             .getPoints(new Segment(_points.getPoint("I2"), _points.getPoint("H2"))));
+		}
+
+		// A segment without implicit points
+		assertTrue(incidence.getPoints(new Segment(_points.getPoint("H1"), _points.getPoint("V1"))).isEmpty());
+	}
+}
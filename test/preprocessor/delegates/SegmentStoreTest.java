@@ -0,0 +1,96 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+class SegmentStoreTest
+{
+	//  A----B----C----D     E
+	//                       |
+	//                       F
+	@Test
+	void test_run()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 1);
+		Point c = new Point("C", 2, 2);
+		Point d = new Point("D", 3, 3);
+		Point e = new Point("E", 5, 1);
+		Point f = new Point("F", 5, 0);
+
+		SegmentStore store = new SegmentStore();
+		store.addRun(List.of(a, b, c, d));
+		store.put(new Segment(e, f), new Segment(e, f));
+
+		// AB, AC, AD, BC, BD, CD and EF
+		assertEquals(7, store.size());
+		assertTrue(store.containsKey(new Segment(d, a)));
+		assertTrue(store.containsKey(new Segment(b, c)));
+		assertTrue(store.containsKey(new Segment(e, f)));
+		assertFalse(store.containsKey(new Segment(a, e)));
+		assertFalse(store.containsKey(new Segment(a, new Point(4, 4))));
+		assertEquals(new Segment(b, d), store.get(new Segment(d, b)));
+
+		Set<Segment> iterated = new HashSet<Segment>();
+		store.keySet().forEach((segment) -> iterated.add(segment));
+		assertEquals(7, iterated.size());
+		assertTrue(iterated.contains(new Segment(a, d)));
+
+		// Removing from and restoring to the run
+		assertEquals(new Segment(a, c), store.remove(new Segment(c, a)));
+		assertNull(store.remove(new Segment(c, a)));
+		assertFalse(store.containsKey(new Segment(a, c)));
+		assertEquals(6, store.size());
+		assertEquals(6, store.keySet().stream().count());
+
+		assertNull(store.put(new Segment(a, c), new Segment(a, c)));
+		assertTrue(store.containsKey(new Segment(a, c)));
+		assertEquals(7, store.size());
+
+		// Equal to a map holding the same segments
+		Set<Segment> keys = new HashSet<Segment>(store.keySet());
+		assertEquals(keys, store.keySet());
+	}
+
+	@Test
+	void test_long_run_size()
+	{
+		// 70000 points: more than Integer.MAX_VALUE subsegments
+		List<Point> points = new ArrayList<Point>();
+		for (int k = 0; k < 70000; k++) points.add(new Point(k, 1));
+
+		SegmentStore store = new SegmentStore();
+		store.addRun(points);
+
+		assertEquals(70000L * 69999 / 2, store.longSize());
+		assertEquals(Integer.MAX_VALUE, store.size());
+		assertTrue(store.containsKey(new Segment(points.get(0), points.get(69999))));
+		assertTrue(store.containsKey(new Segment(points.get(65536), points.get(65537))));
+	}
+
+	@Test
+	void test_run_too_long()
+	{
+		Point a = new Point(0, 0);
+		List<Point> points = new AbstractList<Point>()
+		{
+			@Override
+			public Point get(int index) { return a; }
+
+			@Override
+			public int size() { return SegmentStore.MAX_RUN_LENGTH + 1; }
+		};
+
+		assertThrows(IllegalArgumentException.class, () -> new SegmentStore().addRun(points));
+	}
+}
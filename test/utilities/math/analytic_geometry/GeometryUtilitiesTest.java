@@ -0,0 +1,64 @@
+package utilities.math.analytic_geometry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.points.Point;
+import utilities.math.MathUtilities;
+
+class GeometryUtilitiesTest
+{
+	/*
+	 * The distance-based definition of between()
+	 */
+	private static boolean betweenByDistance(Point M, Point A, Point B)
+	{
+		return MathUtilities.doubleEquals(GeometryUtilities.distance(A, M) + GeometryUtilities.distance(M, B),
+		                                  GeometryUtilities.distance(A, B));
+	}
+
+	@Test
+	void test_between_endpoints_and_interior()
+	{
+		Point a = new Point(0, 0);
+		Point b = new Point(4, 2);
+
+		assertTrue(GeometryUtilities.between(a, a, b));
+		assertTrue(GeometryUtilities.between(b, a, b));
+		assertTrue(GeometryUtilities.between(new Point(2, 1), a, b));
+
+		assertFalse(GeometryUtilities.between(new Point(6, 3), a, b));
+		assertFalse(GeometryUtilities.between(new Point(-2, -1), a, b));
+		assertFalse(GeometryUtilities.between(new Point(2, 1.01), a, b));
+
+		// Degenerate segment
+		assertTrue(GeometryUtilities.between(a, a, a));
+		assertFalse(GeometryUtilities.between(new Point(0, 0.001), a, a));
+	}
+
+	//
+	// Points just inside / outside the epsilon tolerance agree with the distance-based definition
+	//
+	@Test
+	void test_between_agrees_with_distances()
+	{
+		Point a = new Point(1, 1);
+		Point b = new Point(7, 4);
+
+		double length = GeometryUtilities.distance(a, b);
+		double nx = -(b.getY() - a.getY()) / length;
+		double ny = (b.getX() - a.getX()) / length;
+
+		for (double t : new double[] { -1e-3, -1e-6, -4e-7, 0, 0.001, 0.5, 0.999, 1, 1 + 4e-7, 1 + 1e-6, 1.001 })
+		{
+			for (double h : new double[] { 0, 1e-7, 1e-6, 1e-5, 1e-4, 1e-3, 1e-2 })
+			{
+				Point m = new Point(a.getX() + t * (b.getX() - a.getX()) + h * nx,
+				                    a.getY() + t * (b.getY() - a.getY()) + h * ny);
+
+				assertEquals(betweenByDistance(m, a, b), GeometryUtilities.between(m, a, b), "t = " + t + ", h = " + h);
+			}
+		}
+	}
+}